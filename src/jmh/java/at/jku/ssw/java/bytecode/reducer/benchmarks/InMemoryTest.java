@@ -0,0 +1,70 @@
+package at.jku.ssw.java.bytecode.reducer.benchmarks;
+
+import org.objectweb.asm.ClassReader;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Stand-in for the interestingness test that decides in memory instead of
+ * running the test script in a separate process.
+ * Candidates that cannot be parsed are never interesting, while the
+ * decision for all other candidates is based on the given
+ * {@link Acceptance}. The decisions are deterministic, so that repeated
+ * reductions of the same class file perform the same steps.
+ */
+public class InMemoryTest implements Predicate<byte[]> {
+
+    /**
+     * The decisions of the test.
+     */
+    public enum Acceptance {
+        /**
+         * Every candidate is interesting
+         * (i.e. the forced or first candidate is accepted).
+         */
+        ALL,
+
+        /**
+         * No candidate is interesting
+         * (i.e. all candidates are enumerated).
+         */
+        NONE,
+
+        /**
+         * About half of the candidates are interesting
+         * (based on the hash of the bytecode).
+         */
+        HALF
+    }
+
+    /**
+     * The decisions of the test.
+     */
+    private final Acceptance acceptance;
+
+    public InMemoryTest(Acceptance acceptance) {
+        this.acceptance = acceptance;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean test(byte[] bytecode) {
+        try {
+            new ClassReader(bytecode);
+        } catch (RuntimeException e) {
+            return false;
+        }
+
+        switch (acceptance) {
+            case ALL:
+                return true;
+            case NONE:
+                return false;
+            default:
+                return (Arrays.hashCode(bytecode) & 1) == 0;
+        }
+    }
+}
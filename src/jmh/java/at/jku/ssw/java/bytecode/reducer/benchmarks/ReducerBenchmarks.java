@@ -0,0 +1,200 @@
+package at.jku.ssw.java.bytecode.reducer.benchmarks;
+
+import at.jku.ssw.java.bytecode.reducer.context.ModuleRegistry;
+import at.jku.ssw.java.bytecode.reducer.runtypes.IterativeReducer;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
+import at.jku.ssw.java.bytecode.reducer.states.State;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks every module of the {@link ModuleRegistry} on the sample
+ * class files and the test corpus.
+ * The interestingness test is replaced by an {@link InMemoryTest},
+ * so that only the cost of the reducers themselves is measured.
+ * <ul>
+ * <li>{@link #candidate()} reports the candidates per second
+ * (and, as the GC profiler is attached, the allocation per candidate
+ * as {@code gc.alloc.rate.norm})</li>
+ * <li>{@link #minimal()} reports the time to reach the minimal result</li>
+ * </ul>
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReducerBenchmarks {
+
+    /**
+     * The sample class files (relative to the project directory).
+     */
+    private static final Path SAMPLES = Paths.get("samples");
+
+    /**
+     * The test corpus (relative to the project directory).
+     */
+    private static final Path CORPUS = Paths.get("src", "test", "resources", "bytecodes");
+
+    /**
+     * The directory name of the unreduced class files within the corpus.
+     */
+    private static final String ORIGINAL = "original";
+
+    /**
+     * The fully qualified name of the module
+     * (all registered modules are set in {@link #main(String[])}).
+     */
+    @Param("at.jku.ssw.java.bytecode.reducer.modules.cleanup.RemoveNOPs")
+    public String module;
+
+    /**
+     * The path of the class file
+     * (all class files are set in {@link #main(String[])}).
+     */
+    @Param("samples/TestClazz0.class")
+    public String file;
+
+    /**
+     * The decisions of the interestingness test
+     * (see {@link InMemoryTest.Acceptance}).
+     */
+    @Param({"ALL", "NONE", "HALF"})
+    public String acceptance;
+
+    /**
+     * The bytecode of the class file.
+     */
+    private byte[] bytecode;
+
+    /**
+     * The module instance.
+     */
+    private Reducer reducer;
+
+    /**
+     * The module instance if it produces individual candidates;
+     * {@code null} otherwise.
+     */
+    private IterativeReducer<Object> iterative;
+
+    /**
+     * The stand-in for the interestingness test.
+     */
+    private InMemoryTest test;
+
+    /**
+     * The current base for the candidate generation.
+     */
+    private State.Stable<Object> stable;
+
+    /**
+     * Runs the benchmarks for all registered modules and class files.
+     * Additional JMH options may be passed as arguments.
+     *
+     * @param args The JMH command line options
+     * @throws Exception if the benchmarks cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        var modules = ModuleRegistry.allModules().stream()
+                .map(Class::getName)
+                .distinct()
+                .toArray(String[]::new);
+
+        var files = files().stream()
+                .map(Path::toString)
+                .toArray(String[]::new);
+
+        var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ReducerBenchmarks.class.getSimpleName())
+                .param("module", modules)
+                .param("file", files)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+
+    /**
+     * Collects the sample class files and the unreduced class files
+     * of the test corpus.
+     */
+    private static List<Path> files() throws IOException {
+        try (Stream<Path> samples = Files.list(SAMPLES);
+             Stream<Path> corpus = Files.walk(CORPUS)) {
+
+            return Stream.concat(
+                    samples,
+                    corpus.filter(p -> p.getParent().getFileName().toString().equals(ORIGINAL)))
+                    .filter(p -> p.toString().endsWith(".class"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        bytecode = Files.readAllBytes(Paths.get(file));
+        reducer = Class.forName(module)
+                .asSubclass(Reducer.class)
+                .getConstructor()
+                .newInstance();
+        iterative = reducer instanceof IterativeReducer
+                ? (IterativeReducer<Object>) reducer
+                : null;
+        test = new InMemoryTest(InMemoryTest.Acceptance.valueOf(acceptance));
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        stable = State.of(bytecode);
+    }
+
+    /**
+     * Generates a single candidate.
+     * The candidates are rejected in order to enumerate all of them,
+     * the enumeration starts again once the result is minimal.
+     *
+     * @return the bytecode of the candidate
+     * @throws Exception if the reduction fails
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public byte[] candidate() throws Exception {
+        if (iterative == null)
+            return reducer.apply(bytecode);
+
+        var res = iterative.apply(stable);
+
+        stable = res.isMinimal() ? State.of(bytecode) : res.reject();
+
+        return res.bytecode();
+    }
+
+    /**
+     * Reduces the class file until the minimal result is reached.
+     *
+     * @return the minimal bytecode
+     * @throws Exception if the reduction fails
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] minimal() throws Exception {
+        return reducer.apply(bytecode, test);
+    }
+}
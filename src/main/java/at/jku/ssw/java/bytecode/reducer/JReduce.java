@@ -1,17 +1,43 @@
 package at.jku.ssw.java.bytecode.reducer;
 
 import at.jku.ssw.java.bytecode.reducer.io.cli.CLIParser;
+import at.jku.ssw.java.bytecode.reducer.context.BytecodeCache;
+import at.jku.ssw.java.bytecode.reducer.context.BytecodeVerifier;
+import at.jku.ssw.java.bytecode.reducer.context.Checkpoint;
+import at.jku.ssw.java.bytecode.reducer.context.ClassRemover;
+import at.jku.ssw.java.bytecode.reducer.context.Context;
 import at.jku.ssw.java.bytecode.reducer.context.ContextFactory;
+import at.jku.ssw.java.bytecode.reducer.context.ResultCache;
+import at.jku.ssw.java.bytecode.reducer.context.TestSuite;
+import at.jku.ssw.java.bytecode.reducer.context.TestSuite.Outcome;
 import at.jku.ssw.java.bytecode.reducer.errors.DuplicateClassException;
 import at.jku.ssw.java.bytecode.reducer.io.NamingStrategy;
+import at.jku.ssw.java.bytecode.reducer.io.OutputWriter;
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
 import at.jku.ssw.java.bytecode.reducer.io.TempDir;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Counter;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Stage;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
 import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
 import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class JReduce {
     private static final Logger logger = LogManager.getLogger();
@@ -39,7 +65,7 @@ public class JReduce {
             final var context = contextFactory.createContext();
 
             // retrieve the running order
-            final var stages = context.executionOrder();
+            final var scheduler = context.scheduler();
 
             // initialize the test suite
             final var testSuite = contextFactory.getTestSuite();
@@ -47,67 +73,198 @@ public class JReduce {
             // init the cache
             final var cache = contextFactory.initCache();
 
-            // instantiate the temporary directory at the given location
-            TempDir.at(context.tempDir).use(tempDir ->
+            // the progress of a previous run (if requested)
+            final var checkpoint = contextFactory.initCheckpoint(context);
+
+            // init the cache for the test results
+            final var results = contextFactory.initResultCache(testSuite);
+
+            // record the metrics of the reduction stages
+            final var metrics = contextFactory.initMetrics();
+
+            // reject unverifiable candidates without running the tests
+            // (if requested)
+            final var verifier = contextFactory.initVerifier();
+
+            // write the intermediate results in the background
+            final var output = new OutputWriter(context.outDir, context.output, context.writeInterval, cache.archives());
+
+            // restore the progress of a previous run (if requested)
+            // and start with the complete set of class files
+            checkpoint.restore(cache, output);
+            cache.classes().forEach(fileName -> output.submit(fileName, cache.bytecode(fileName)));
+
+            // initialize the workers for parallel test runs
+            final var executor = context.jobs > 1
+                    ? Executors.newFixedThreadPool(context.jobs)
+                    : null;
+
+            try {
+                // instantiate the temporary directory at the given location
+                TempDir.at(context.storage).use(Catch.consumer(tempDir -> {
+                    // classes that are not required at all are removed
+                    // before any module reduces them
+                    removeClasses(context, tempDir, cache, testSuite, results, output, checkpoint);
+
+                    Optional<Class<? extends Reducer>> next;
+
+                    // apply the modules until no further progress is made
+                    for (int i = 0; (next = scheduler.next()).isPresent(); i++) {
+                        final var stage   = i;
+                        final var module  = next.get();
+                        final var name    = module.getSimpleName();
+
+                        // the outcome of the stage is known from the
+                        // previous run
+                        if (checkpoint.replay(stage, module, scheduler)) {
+                            logger.info("Skipping reducer " + name + " - already applied in a previous run");
+                            continue;
+                        }
 
-                    // iterate all stages
-                    stages.forEach(Catch.consumer(module -> {
                         final var reducer = module.getDeclaredConstructor().newInstance();
 
-                        logger.info("Initializing reducer " + module.getSimpleName());
+                        // measurements for the scheduler
+                        final var sizeBefore = cache.size();
+                        final var testNanos  = new AtomicLong();
+                        final var changed    = new AtomicBoolean();
+
+                        logger.info("Initializing reducer " + name);
+
+                        TempDir.at(NamingStrategy.ForInstance(reducer), tempDir, context.storage).use(Catch.consumer(reducerDir -> {
+                            // every parallel test run requires its own directory
+                            final var workspaces = workspaces(context.storage, reducerDir, context.jobs);
 
-                        TempDir.at(NamingStrategy.ForInstance(reducer), tempDir).use(reducerDir ->
-                                cache.classes().forEach(Catch.consumer(fileName -> {
-                                    logger.info("Reducing file " + fileName);
+                            // place the tests and all class files in the
+                            // working directories - afterwards only
+                            // the reduced class file is replaced
+                            workspaces.forEach(Catch.consumer(workspace -> {
+                                cache.write(workspace, context.storage);
+                                testSuite.prepare(workspace, context.storage);
+                            }));
 
-                                    // write all other files to the temporary directory
-                                    cache.write(reducerDir);
+                            // classes are reduced before the classes they refer to
+                            cache.dependencies().order().forEach(Catch.consumer(fileName -> {
+                                if (checkpoint.isCompleted(stage, name, fileName)) {
+                                    logger.info("Skipping file " + fileName + " - already reduced in a previous run");
+                                    return;
+                                }
 
-                                    var bytecode = cache.bytecode(fileName);
+                                logger.info("Reducing file " + fileName);
 
+                                final var available = new LinkedBlockingQueue<>(workspaces);
+
+                                final var original = cache.bytecode(fileName);
+
+                                metrics.enter(name, fileName);
+
+                                final byte[] bytecode;
+                                try {
                                     /*
                                     This call applies the given reduction
                                     until the result is minimal.
                                     The result then is the last valid bytecode.
                                     */
-                                    bytecode = reducer.apply(bytecode, result -> {
+                                    bytecode = Javassist.withClassPath(cache, () -> reducer.apply(original, result -> {
                                         /*
                                         this method is called for every
                                         intermediate result attempt,
                                         where "result" holds a potentially
                                         conflicting bytecode
+                                        (candidates may be tested speculatively,
+                                        therefore only the accepted results
+                                        are committed below)
                                         */
 
-                                        var path = reducerDir.resolve(fileName);
+                                        // skip the test if this class file
+                                        // set was already tested before
+                                        var key = results.key(cache, fileName, result);
+                                        var known = results.get(key);
 
-                                        try {
-                                            Files.write(path, result);
-                                        } catch (IOException e) {
-                                            logger.fatal(e);
+                                        if (known.isPresent()) {
+                                            logger.info("Skipping test - result is already known");
+                                            metrics.count(Counter.CACHED);
+                                            return known.get();
                                         }
 
-                                        // check bytecode validity
-                                        var isValid = testSuite.test(reducerDir);
-
-                                        if (isValid) {
+                                        if (!verify(verifier, result)) {
                                             /*
-                                            if the tests ran correctly, update
-                                            the cached bytecode and write the
-                                            intermediate result to the output
-                                            directory
+                                            the outcome is not cached, as it
+                                            depends on the option and the cache
+                                            may be shared with other runs
                                             */
-                                            cache.update(fileName, result)
-                                                    .write(context.outDir);
+                                            logger.info("Skipping test - bytecode is not verifiable");
+                                            metrics.count(Counter.UNVERIFIABLE);
+                                            return false;
+                                        }
+
+                                        var start   = System.nanoTime();
+                                        var outcome = test(testSuite, context.storage, available, fileName, result);
+                                        testNanos.addAndGet(System.nanoTime() - start);
+
+                                        outcome.ifPresent(r -> results.put(key, r));
+                                        return outcome.orElse(false);
+                                    }, result -> {
+                                        /*
+                                        this method is called for every
+                                        accepted result, therefore update
+                                        the cached bytecode and schedule
+                                        the intermediate result to be
+                                        written to the output directory
+                                        */
+                                        synchronized (cache) {
+                                            cache.update(fileName, result);
+                                            output.submit(fileName, result);
                                         }
 
-                                        return isValid;
-                                    });
+                                        checkpoint.accept(fileName, result);
+                                    }, executor, context.jobs));
+
+                                    metrics.count(Counter.BYTES_REMOVED, original.length - bytecode.length);
+                                } finally {
+                                    metrics.leave();
+                                }
+
+                                // place the (now valid) bytecode
+                                // in the cache
+                                cache.update(fileName, bytecode);
 
-                                    // place the (now valid) bytecode
-                                    // in the cache
-                                    cache.update(fileName, bytecode);
-                                })), context.keepTemp);
-                    })), context.keepTemp);
+                                if (!Arrays.equals(original, bytecode))
+                                    changed.set(true);
+
+                                // the working directories may still contain
+                                // rejected candidates of this class
+                                // (the reducer only returns once all
+                                // of its tests finished)
+                                workspaces.forEach(workspace -> write(context.storage, workspace.resolve(fileName), bytecode));
+
+                                checkpoint.complete(stage, name, fileName);
+                            }));
+                        }), context.keepTemp);
+
+                        scheduler.record(module, changed.get(), sizeBefore - cache.size(), testNanos.get());
+                        checkpoint.finish(stage, module, changed.get(), sizeBefore - cache.size(), testNanos.get());
+                    }
+
+                    // the reduced classes may not require other classes anymore
+                    removeClasses(context, tempDir, cache, testSuite, results, output, checkpoint);
+                }), context.keepTemp);
+
+                // the reduction finished - there is nothing to resume
+                checkpoint.clear();
+            } finally {
+                if (executor != null)
+                    executor.shutdownNow();
+
+                testSuite.close();
+
+                // write the pending results
+                output.close();
+
+                metrics.close();
+
+                context.storage.report();
+                context.output.report();
+            }
 
         } catch (ParseException e) {
             logger.fatal(e);
@@ -120,4 +277,216 @@ public class JReduce {
         }
     }
 
+    /**
+     * Checks the given bytecode with the given verifier (if any).
+     *
+     * @param verifier The verifier
+     * @param bytecode The bytecode to check
+     * @return {@code true} if the bytecode is verifiable or no verifier
+     * is given; {@code false} otherwise
+     */
+    private static boolean verify(Optional<BytecodeVerifier> verifier, byte[] bytecode) {
+        if (verifier.isEmpty())
+            return true;
+
+        var start   = System.nanoTime();
+        var isValid = verifier.get().isValid(bytecode);
+        Metrics.global().since(Stage.VERIFY, start);
+
+        return isValid;
+    }
+
+    /**
+     * Runs the test suite on the given bytecode in one of the
+     * available working directories.
+     *
+     * @param testSuite The test suite to run
+     * @param storage   The storage of the working directories
+     * @param available The available working directories
+     * @param fileName  The name of the class file
+     * @param bytecode  The bytecode to test
+     * @return the outcome of the test or nothing if the test was cancelled,
+     * did not finish regularly or the bytecode could not be written
+     */
+    private static Optional<Boolean> test(TestSuite testSuite,
+                                          Storage storage,
+                                          BlockingQueue<Path> available,
+                                          String fileName,
+                                          byte[] bytecode) {
+        Path workspace;
+        try {
+            workspace = available.take();
+        } catch (InterruptedException e) {
+            // cancelled before the test started
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+
+        try {
+            var start = System.nanoTime();
+
+            try {
+                storage.write(workspace.resolve(fileName), bytecode);
+            } catch (IOException e) {
+                // the outcome is unknown and must not be cached
+                logger.error("Skipping test - the candidate cannot be written", e);
+                return Optional.empty();
+            } finally {
+                Metrics.global().since(Stage.WORKSPACE, start);
+            }
+
+            // check bytecode validity
+            var outcome = testSuite.test(workspace);
+
+            // the outcome of cancelled tests, timeouts and crashes
+            // is not meaningful
+            return Thread.currentThread().isInterrupted() || outcome == Outcome.UNKNOWN
+                    ? Optional.empty()
+                    : Optional.of(outcome == Outcome.PASSED);
+        } finally {
+            available.add(workspace);
+        }
+    }
+
+    /**
+     * Removes as many whole classes as possible
+     * (see {@link ClassRemover}).
+     *
+     * @param context    The execution context
+     * @param tempDir    The temporary directory of the reduction
+     * @param cache      The bytecode cache
+     * @param testSuite  The test suite to run
+     * @param results    The known test results
+     * @param output     The writer for the intermediate results
+     * @param checkpoint The checkpoint that records the removed classes
+     * @throws IOException if the working directory cannot be created
+     */
+    private static void removeClasses(Context context,
+                                      Path tempDir,
+                                      BytecodeCache cache,
+                                      TestSuite testSuite,
+                                      ResultCache results,
+                                      OutputWriter output,
+                                      Checkpoint checkpoint) throws IOException {
+        final var remover = new ClassRemover(cache);
+        final var metrics = Metrics.global();
+
+        logger.info("Removing classes");
+
+        TempDir.at(NamingStrategy.ForInstance(remover), tempDir, context.storage).use(Catch.consumer(removerDir -> {
+            cache.write(removerDir, context.storage);
+            testSuite.prepare(removerDir, context.storage);
+
+            metrics.enter(remover.getClass().getSimpleName(), null);
+
+            try {
+                remover.apply(removed -> {
+                    var key = results.key(cache, removed);
+                    var known = results.get(key);
+
+                    boolean isValid;
+                    if (known.isPresent()) {
+                        logger.info("Skipping test - result is already known");
+                        metrics.count(Counter.CACHED);
+                        isValid = known.get();
+                    } else {
+                        var outcome = testWithout(testSuite, context.storage, removerDir, cache, removed);
+                        isValid = outcome == Outcome.PASSED;
+
+                        // timeouts and crashes are not cached
+                        if (outcome != Outcome.UNKNOWN)
+                            results.put(key, isValid);
+                    }
+
+                    metrics.count(Counter.GENERATED);
+                    metrics.count(isValid ? Counter.ACCEPTED : Counter.REJECTED);
+
+                    if (isValid) {
+                        removed.forEach(Catch.consumer(fileName -> {
+                            // known results did not remove the class file
+                            var file = removerDir.resolve(fileName);
+                            if (Files.exists(file))
+                                context.storage.delete(file);
+
+                            metrics.count(Counter.BYTES_REMOVED, cache.bytecode(fileName).length);
+                            cache.remove(fileName);
+                            output.remove(fileName);
+                            checkpoint.remove(fileName);
+                        }));
+                    }
+
+                    return isValid;
+                });
+            } finally {
+                metrics.leave();
+            }
+        }), context.keepTemp);
+    }
+
+    /**
+     * Runs the test suite in the given working directory without
+     * the given classes.
+     * The class files are only restored if the test fails.
+     *
+     * @param testSuite The test suite to run
+     * @param storage   The storage of the working directory
+     * @param workspace The working directory
+     * @param cache     The bytecode cache
+     * @param removed   The classes to remove
+     * @return the outcome of the test suite without the given classes
+     */
+    private static Outcome testWithout(TestSuite testSuite,
+                                       Storage storage,
+                                       Path workspace,
+                                       BytecodeCache cache,
+                                       Set<String> removed) {
+        removed.forEach(Catch.consumer(fileName -> storage.delete(workspace.resolve(fileName))));
+
+        var outcome = testSuite.test(workspace);
+
+        if (outcome != Outcome.PASSED)
+            removed.forEach(fileName -> write(storage, workspace.resolve(fileName), cache.bytecode(fileName)));
+
+        return outcome;
+    }
+
+    /**
+     * Writes the given bytecode to the given class file.
+     *
+     * @param storage  The storage that writes the file
+     * @param path     The class file
+     * @param bytecode The bytecode to write
+     */
+    private static void write(Storage storage, Path path, byte[] bytecode) {
+        try {
+            storage.write(path, bytecode);
+        } catch (IOException e) {
+            logger.fatal(e);
+        }
+    }
+
+    /**
+     * Creates the working directories for the given number of parallel
+     * test runs. A single job simply uses the given directory.
+     *
+     * @param storage The storage that creates the directories
+     * @param dir     The parent directory
+     * @param jobs    The number of parallel test runs
+     * @return the list of working directories
+     * @throws IOException if the directories cannot be created
+     */
+    private static List<Path> workspaces(Storage storage, Path dir, int jobs) throws IOException {
+        if (jobs <= 1)
+            return List.of(dir);
+
+        var workspaces = new ArrayList<Path>(jobs);
+
+        for (int i = 0; i < jobs; i++)
+            workspaces.add(storage.createDirectories(
+                    dir.resolve(NamingStrategy.PREFIX + NamingStrategy.SEPARATOR + "job" + NamingStrategy.SEPARATOR + i)
+            ));
+
+        return workspaces;
+    }
+
 }
@@ -1,95 +1,471 @@
 package at.jku.ssw.java.bytecode.reducer.context;
 
 import at.jku.ssw.java.bytecode.reducer.errors.DuplicateClassException;
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
+import javassist.ClassPath;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Caches the analyzed classes and their corresponding current bytecode.
+ * The classes are identified by their internal name and the class file
+ * extension (e.g. {@code pkg/Main.class}), which is also their location
+ * relative to the class path root.
+ * The cached byte arrays are shared with the reducers and
+ * must not be modified.
+ * The cache also serves as the Javassist class path of the reduced
+ * program, so that the classes that are loaded for a reduction can
+ * resolve the current versions of the classes they refer to.
+ * The other entries of JAR files (resources, metadata and versioned
+ * classes) are kept unchanged and are written along with the classes.
  */
-public class BytecodeCache {
+public class BytecodeCache implements ClassPath {
 
     private static final Logger logger = LogManager.getLogger();
 
     /**
-     * Maps the file names to their current bytecode.
+     * The extension of class files.
+     */
+    public static final String CLASS_EXTENSION = ".class";
+
+    /**
+     * The extension of JAR files.
+     */
+    public static final String JAR_EXTENSION = ".jar";
+
+    /**
+     * The directory of JAR files that contains metadata
+     * (and versioned classes that are not reduced).
+     */
+    private static final String META_INF = "META-INF";
+
+    /**
+     * The name of the module descriptor (which is not reduced).
+     */
+    private static final String MODULE_INFO = "module-info";
+
+    /**
+     * Maps the class files to their current bytecode.
      */
     private final Map<String, byte[]> bytecodes;
 
     /**
-     * Initialize a cache that stores the bytecodes of the given class files.
+     * Maps the class files that were read from JAR files to
+     * the corresponding JAR file.
+     */
+    private final Map<String, Path> archives;
+
+    /**
+     * Maps the paths of the other (non-reduced) entries of JAR files
+     * to their contents.
+     */
+    private final Map<String, byte[]> resources;
+
+    /**
+     * The member references of the classes.
+     */
+    private final ReferenceIndex references;
+
+    /**
+     * The references between the classes (which are determined lazily).
+     */
+    private final DependencyGraph dependencies;
+
+    /**
+     * The classes whose references are outdated in the
+     * {@link #dependencies dependency graph}.
+     */
+    private final Set<String> modified;
+
+    /**
+     * Maps the class files to the hashes of their names and
+     * current bytecode.
+     */
+    private final Map<String, byte[]> hashes;
+
+    /**
+     * The combination (XOR) of the hashes of all classes, which is updated
+     * along with the classes, so that the digest of the class file set
+     * does not require to hash all classes again.
+     */
+    private final byte[] combined;
+
+    /**
+     * Initialize a cache that stores the bytecodes of the given inputs.
+     * Every input is either a class file, a directory that is scanned
+     * for class files (e.g. the root of a class path) or a JAR file.
      *
-     * @param files The files to cache the bytecodes for
+     * @param inputs The files to cache the bytecodes for
      * @throws IOException             if the bytecode cannot be read
-     * @throws DuplicateClassException if two class files have the same name
+     * @throws DuplicateClassException if two class files describe the
+     *                                 same class
      */
-    BytecodeCache(Collection<Path> files)
+    BytecodeCache(Collection<Path> inputs)
             throws IOException, DuplicateClassException {
 
-        final var bytecodes = new HashMap<String, byte[]>();
+        this.bytecodes = new HashMap<>();
+        this.archives = new HashMap<>();
+        this.resources = new HashMap<>();
+        this.references = new ReferenceIndex();
+        this.dependencies = new DependencyGraph();
+        this.modified = new HashSet<>();
+        this.hashes = new HashMap<>();
+        this.combined = new byte[ResultCache.digest().getDigestLength()];
+
+        for (var input : inputs) {
+            if (Files.isDirectory(input)) {
+                readAll(input, null);
+            } else if (input.getFileName().toString().endsWith(JAR_EXTENSION)) {
+                // the entries are read directly from the archive
+                try (var zip = FileSystems.newFileSystem(input, (ClassLoader) null)) {
+                    for (var root : zip.getRootDirectories())
+                        readAll(root, input);
+                }
+            } else {
+                add(Files.readAllBytes(input), null);
+            }
+        }
+    }
+
+    /**
+     * Reads all class files in the given directory (and its subdirectories).
+     * The other files of JAR files are stored as resources.
+     *
+     * @param dir     The directory to scan
+     * @param archive The JAR file that contains the directory
+     *                (or {@code null})
+     * @throws IOException             if the bytecode cannot be read
+     * @throws DuplicateClassException if two class files describe the
+     *                                 same class
+     */
+    private void readAll(Path dir, Path archive)
+            throws IOException, DuplicateClassException {
+
+        List<Path> files;
+        try (var paths = Files.walk(dir)) {
+            files = paths
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList());
+        }
 
         for (var file : files) {
-            var className = file.getFileName().toString();
+            var isClass = file.getFileName().toString().endsWith(CLASS_EXTENSION) &&
+                    (archive == null || !file.startsWith(dir.resolve(META_INF)));
 
-            if (bytecodes.containsKey(className))
-                throw new DuplicateClassException(className);
+            if (isClass)
+                add(Files.readAllBytes(file), archive);
+            else if (archive != null)
+                resources.put(dir.relativize(file).toString(), Files.readAllBytes(file));
+        }
+    }
 
-            bytecodes.put(className, Files.readAllBytes(file));
+    /**
+     * Adds the given bytecode, where the class file name is
+     * derived from the contained class name.
+     *
+     * @param bytecode The bytecode
+     * @param archive  The JAR file that contains the class
+     *                 (or {@code null})
+     * @throws DuplicateClassException if the class was already added
+     */
+    private void add(byte[] bytecode, Path archive) throws DuplicateClassException {
+        var className = new ClassReader(bytecode).getClassName();
+
+        if (className.equals(MODULE_INFO)) {
+            logger.info("Skipping module descriptor");
+            return;
         }
 
-        this.bytecodes = bytecodes;
+        var fileName = className + CLASS_EXTENSION;
+
+        if (bytecodes.putIfAbsent(fileName, bytecode) != null)
+            throw new DuplicateClassException(fileName);
+
+        if (archive != null)
+            archives.put(fileName, archive);
+
+        rehash(fileName, bytecode);
+        modified.add(fileName);
+        references.update(className, bytecode);
     }
 
     /**
      * Updates the bytecode for the given file.
      *
      * @param className   The file who's bytecode was modified
-     * @param newBytecode The new bytecode
+     * @param newBytecode The new bytecode (which is not copied)
      * @return the updated cache instance
      */
     public final BytecodeCache update(String className, byte[] newBytecode) {
-        bytecodes.put(className, newBytecode);
+        if (bytecodes.put(className, newBytecode) != newBytecode) {
+            rehash(className, newBytecode);
+            modified.add(className);
+            references.update(internalName(className), newBytecode);
+        }
+
+        return this;
+    }
+
+    /**
+     * Removes the given class.
+     *
+     * @param className The class to remove
+     * @return the updated cache instance
+     */
+    public final BytecodeCache remove(String className) {
+        bytecodes.remove(className);
+        rehash(className, null);
+        modified.add(className);
+        references.update(internalName(className), null);
 
         return this;
     }
 
+    /**
+     * Determines the internal name of the class that is stored
+     * in the given class file.
+     *
+     * @param fileName The name of the class file
+     * @return the internal class name
+     */
+    private static String internalName(String fileName) {
+        return fileName.substring(0, fileName.length() - CLASS_EXTENSION.length());
+    }
+
+    /**
+     * Returns the references between the current classes.
+     *
+     * @return the up-to-date dependency graph
+     */
+    public final DependencyGraph dependencies() {
+        modified.forEach(c -> dependencies.update(c, bytecodes.get(c)));
+        modified.clear();
+
+        return dependencies;
+    }
+
+    /**
+     * Returns the member references of the current classes.
+     *
+     * @return the up-to-date reference index
+     */
+    public final ReferenceIndex references() {
+        return references;
+    }
+
     /**
      * Writes the current bytecode to a corresponding file in the
-     * given directory.
+     * given directory (where the package directories are created
+     * if necessary).
+     * The resources of JAR files are written as well, so that the
+     * directory corresponds to the contents of the JAR files.
      *
-     * @param dest The target directory
+     * @param dest    The target directory
+     * @param storage The storage that writes the files
      * @return the current cache instance
      */
-    public final BytecodeCache write(Path dest) {
-        bytecodes.forEach((file, bytecode) -> {
-            var path = dest.resolve(file);
-
-            try {
-                Files.write(path, bytecode);
-            } catch (IOException e) {
-                logger.fatal(e);
-            }
-        });
+    public final BytecodeCache write(Path dest, Storage storage) {
+        resources.forEach((file, bytes) -> write(dest.resolve(file), bytes, storage));
+        bytecodes.forEach((file, bytecode) -> write(dest.resolve(file), bytecode, storage));
 
         return this;
     }
 
+    /**
+     * Writes the given file (and creates its directory if necessary).
+     *
+     * @param path    The file to write
+     * @param bytes   The contents of the file
+     * @param storage The storage that writes the file
+     */
+    private static void write(Path path, byte[] bytes, Storage storage) {
+        try {
+            if (!Files.isDirectory(path.getParent()))
+                storage.createDirectories(path.getParent());
+
+            storage.write(path, bytes);
+        } catch (IOException e) {
+            logger.fatal(e);
+        }
+    }
+
     /**
      * Retrieves the bytecode of the given file.
      *
+     * The returned array is shared and must not be modified.
+     *
      * @param className The file who's bytecode is cached
      * @return the bytecode of the corresponding file or null if the file
      * was not cached
      */
     public final byte[] bytecode(String className) {
-        var bytecode = bytecodes.get(className);
+        return bytecodes.get(className);
+    }
+
+    /**
+     * Opens the current bytecode of the given class
+     * (as part of the Javassist class path).
+     *
+     * @param classname The fully qualified name of the class
+     * @return a stream of the bytecode or {@code null} if the class
+     * is not cached
+     */
+    @Override
+    public InputStream openClassfile(String classname) {
+        byte[] bytecode;
+        synchronized (this) {
+            bytecode = bytecode(fileName(classname));
+        }
+
+        return bytecode == null ? null : new ByteArrayInputStream(bytecode);
+    }
+
+    /**
+     * Determines a (virtual) location of the given class
+     * (as part of the Javassist class path).
+     *
+     * @param classname The fully qualified name of the class
+     * @return the location or {@code null} if the class is not cached
+     */
+    @Override
+    public URL find(String classname) {
+        var fileName = fileName(classname);
+
+        synchronized (this) {
+            if (!bytecodes.containsKey(fileName))
+                return null;
+        }
+
+        try {
+            return new URL("file:/" + BytecodeCache.class.getSimpleName() + "/" + fileName);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Determines the name of the class file that stores the given class.
+     *
+     * @param classname The fully qualified name of the class
+     * @return the class file name
+     */
+    private static String fileName(String classname) {
+        return classname.replace('.', '/') + CLASS_EXTENSION;
+    }
+
+    /**
+     * Computes the hash of the given class, where the name and the
+     * bytecode are prefixed with their lengths (so that different
+     * splits of the same bytes yield different hashes).
+     * This is the expensive part of a digest and therefore does not
+     * access the cache.
+     *
+     * @param className The name of the class file
+     * @param bytecode  The bytecode of the class
+     * @return the hash of the class
+     */
+    public static byte[] hash(String className, byte[] bytecode) {
+        var digest = ResultCache.digest();
+        var name   = className.getBytes(StandardCharsets.UTF_8);
+
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(name.length).array());
+        digest.update(name);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytecode.length).array());
+        digest.update(bytecode);
 
-        return Arrays.copyOf(bytecode, bytecode.length);
+        return digest.digest();
+    }
+
+    /**
+     * Determines the digest of all cached classes, where the given
+     * class is replaced by the bytecode with the given hash.
+     * Equal class file sets yield equal digests regardless of the
+     * order of their modifications.
+     *
+     * @param className The class that is replaced
+     * @param hash      The hash of the class and its replaced bytecode
+     *                  (see {@link #hash(String, byte[])})
+     * @return the digest of the class file set
+     */
+    public final byte[] digest(String className, byte[] hash) {
+        var result = combined.clone();
+
+        xor(result, hashes.get(className));
+        xor(result, hash);
+
+        return result;
+    }
+
+    /**
+     * Determines the digest of all cached classes except for the given ones
+     * (see {@link #digest(String, byte[])}).
+     *
+     * @param removed The classes that are left out
+     * @return the digest of the class file set
+     */
+    public final byte[] digest(Set<String> removed) {
+        var result = combined.clone();
+
+        removed.forEach(file -> xor(result, hashes.get(file)));
+
+        return result;
+    }
+
+    /**
+     * Replaces the hash of the given class in the combined hash.
+     *
+     * @param className The class file
+     * @param bytecode  The new bytecode (or {@code null} if the class
+     *                  was removed)
+     */
+    private void rehash(String className, byte[] bytecode) {
+        var hash = bytecode == null ? null : hash(className, bytecode);
+
+        xor(combined, hashes.remove(className));
+
+        if (hash != null) {
+            hashes.put(className, hash);
+            xor(combined, hash);
+        }
+    }
+
+    /**
+     * Combines the given hash with the target.
+     *
+     * @param target The combined hash that is updated
+     * @param hash   The hash to combine (or {@code null})
+     */
+    private static void xor(byte[] target, byte[] hash) {
+        if (hash == null)
+            return;
+
+        for (int i = 0; i < target.length; i++)
+            target[i] ^= hash[i];
+    }
+
+    /**
+     * Computes the total size of the current bytecodes.
+     *
+     * @return the number of bytes of all classes
+     */
+    public final long size() {
+        return bytecodes.values().stream()
+                .mapToLong(b -> b.length)
+                .sum();
     }
 
     /**
@@ -101,4 +477,14 @@ public class BytecodeCache {
         return bytecodes.keySet();
     }
 
+    /**
+     * Returns the classes that were read from JAR files.
+     *
+     * @return a map of the class names to the JAR files
+     * that contain them
+     */
+    public final Map<String, Path> archives() {
+        return Collections.unmodifiableMap(archives);
+    }
+
 }
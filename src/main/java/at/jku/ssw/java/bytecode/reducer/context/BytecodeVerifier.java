@@ -0,0 +1,77 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.BasicValue;
+import org.objectweb.asm.tree.analysis.BasicVerifier;
+
+import static org.objectweb.asm.Opcodes.ACC_ABSTRACT;
+import static org.objectweb.asm.Opcodes.ACC_NATIVE;
+
+/**
+ * Checks candidates in-process before the tests are run, which allows
+ * to reject class files that the JVM would refuse to load without
+ * spawning a test process.
+ * The check is limited to the structure of the class file and the
+ * data flow of the methods (stack heights and the kinds of values).
+ * As the other classes are not available, the type hierarchy is not
+ * checked, so that no valid class is ever rejected.
+ */
+public class BytecodeVerifier {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Checks whether the given bytecode describes a verifiable class.
+     *
+     * @param bytecode The bytecode of the class
+     * @return {@code true} if the class passes the verification;
+     * {@code false} otherwise
+     */
+    public boolean isValid(byte[] bytecode) {
+        var node = new ClassNode();
+
+        try {
+            new ClassReader(bytecode).accept(node, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } catch (RuntimeException e) {
+            logger.debug("Class file is malformed", e);
+            return false;
+        }
+
+        return node.methods.stream().allMatch(method -> isValid(node.name, method));
+    }
+
+    /**
+     * Checks whether the given method is verifiable.
+     *
+     * @param owner  The internal name of the declaring class
+     * @param method The method
+     * @return {@code true} if the method passes the verification;
+     * {@code false} otherwise
+     */
+    private boolean isValid(String owner, MethodNode method) {
+        boolean hasCode = method.instructions.size() > 0;
+
+        // only abstract and native methods may not have code
+        if (hasCode == ((method.access & (ACC_ABSTRACT | ACC_NATIVE)) != 0)) {
+            logger.debug("Method {}{} has {} code", method.name, method.desc, hasCode ? "unexpected" : "no");
+            return false;
+        }
+
+        if (!hasCode)
+            return true;
+
+        try {
+            new Analyzer<BasicValue>(new BasicVerifier()).analyze(owner, method);
+            return true;
+        } catch (AnalyzerException | RuntimeException e) {
+            logger.debug("Method {}{} fails the verification: {}", method.name, method.desc, e.getMessage());
+            return false;
+        }
+    }
+}
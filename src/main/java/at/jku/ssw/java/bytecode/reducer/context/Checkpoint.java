@@ -0,0 +1,419 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.io.OutputWriter;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records the progress of a reduction, so that an interrupted run
+ * can be continued.
+ * The checkpoint consists of the accepted bytecodes of all classes
+ * and a journal that lists the outcome of every finished stage
+ * and the classes that were already completed in the current stage
+ * (one line per entry).
+ * When a run is resumed, the outcomes of the finished stages are replayed
+ * to the {@link Scheduler} instead of applying the modules again, which
+ * restores the order of the modules and the progress of the passes.
+ * Classes that were interrupted are reduced again, starting from their
+ * last accepted bytecode.
+ * Recording is optional, as every accepted candidate is written
+ * synchronously. A disabled checkpoint ignores all updates.
+ */
+public class Checkpoint {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The name of the checkpoint directory
+     * (which is located in the output directory).
+     */
+    public static final String DIR = ".checkpoint";
+
+    /**
+     * The name of the journal file.
+     */
+    private static final String JOURNAL = "journal";
+
+    /**
+     * The name of the directory that contains the accepted bytecodes.
+     */
+    private static final String CLASSES = "classes";
+
+    /**
+     * The name of the file that lists the removed classes.
+     */
+    private static final String REMOVED = "removed";
+
+    /**
+     * The journal entry of a finished stage.
+     */
+    private static final String STAGE = "stage";
+
+    /**
+     * The journal entry of a completed class.
+     */
+    private static final String CLASS = "class";
+
+    /**
+     * The checkpoint directory.
+     */
+    private final Path dir;
+
+    /**
+     * Flag that indicates whether the progress is recorded.
+     */
+    private final boolean enabled;
+
+    /**
+     * The outcomes of the stages that were finished in the previous run
+     * (in the order of application).
+     */
+    private final List<Outcome> finished;
+
+    /**
+     * The name of the module of the interrupted stage.
+     */
+    private String module;
+
+    /**
+     * Flag that indicates that the schedule deviates from the previous
+     * run, in which case the remaining progress is not restored.
+     */
+    private boolean diverged;
+
+    /**
+     * The classes that were already completed in the interrupted stage.
+     */
+    private final Set<String> completed;
+
+    /**
+     * Initialize a new checkpoint in the given directory.
+     * If a previous run should be resumed, its progress is restored.
+     * Otherwise the previous checkpoint is discarded.
+     *
+     * @param dir     The checkpoint directory
+     * @param enabled Flag that indicates whether the progress of this
+     *                run is recorded
+     * @param resume  Flag that indicates whether the checkpoint of the
+     *                previous run is restored
+     * @throws IOException if the checkpoint cannot be read or reset
+     */
+    Checkpoint(Path dir, boolean enabled, boolean resume) throws IOException {
+        this.dir = dir;
+        this.enabled = enabled;
+        this.completed = new HashSet<>();
+        this.finished = new ArrayList<>();
+
+        // an outdated checkpoint must not be resumed later on
+        if (!resume && Files.exists(dir))
+            FileUtils.delete(dir);
+
+        if (enabled)
+            Files.createDirectories(dir.resolve(CLASSES));
+
+        var journal = dir.resolve(JOURNAL);
+
+        if (resume && Files.exists(journal))
+            load(Files.readAllLines(journal, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Restores the progress from the given journal entries.
+     *
+     * @param lines The lines of the journal
+     */
+    private void load(List<String> lines) {
+        for (var line : lines) {
+            var parts = line.split(" ");
+
+            if (parts.length == 4 && parts[0].equals(CLASS)) {
+                // only the classes of the interrupted stage are relevant
+                if (Integer.parseInt(parts[1]) != finished.size())
+                    continue;
+
+                if (!parts[2].equals(module)) {
+                    module = parts[2];
+                    completed.clear();
+                }
+
+                completed.add(parts[3]);
+            } else if (parts.length == 6 && parts[0].equals(STAGE)) {
+                if (Integer.parseInt(parts[1]) != finished.size())
+                    continue;
+
+                finished.add(new Outcome(
+                        parts[2],
+                        Boolean.parseBoolean(parts[3]),
+                        Long.parseLong(parts[4]),
+                        Long.parseLong(parts[5])
+                ));
+
+                module = null;
+                completed.clear();
+            }
+        }
+
+        logger.info("Resuming stage {} ({} classes completed)", finished.size(), completed.size());
+    }
+
+    /**
+     * Replaces the bytecodes in the given cache by the accepted
+     * bytecodes of the previous run and removes the classes that
+     * were removed in the previous run from the cache and the output
+     * (as the output is initialized with the unreduced inputs).
+     *
+     * @param cache  The bytecode cache
+     * @param output The writer for the intermediate results
+     * @throws IOException if the accepted bytecodes cannot be read
+     */
+    public void restore(BytecodeCache cache, OutputWriter output) throws IOException {
+        for (var className : cache.classes()) {
+            var file = dir.resolve(CLASSES).resolve(className);
+
+            if (Files.exists(file))
+                cache.update(className, Files.readAllBytes(file));
+        }
+
+        var removed = dir.resolve(REMOVED);
+
+        if (Files.exists(removed))
+            Files.readAllLines(removed, StandardCharsets.UTF_8).forEach(className -> {
+                cache.remove(className);
+                output.remove(className);
+            });
+    }
+
+    /**
+     * Replays the outcome of the given stage to the scheduler if the stage
+     * was already finished in the previous run.
+     * If the previous run applied a different module in this stage
+     * (e.g. because the modules were filtered differently),
+     * the progress of this and all later stages is discarded.
+     *
+     * @param stage     The index of the stage
+     * @param module    The module of the stage
+     * @param scheduler The scheduler that receives the outcome
+     * @return {@code true} if the stage can be skipped;
+     * {@code false} otherwise
+     */
+    public synchronized boolean replay(int stage, Class<? extends Reducer> module, Scheduler scheduler) {
+        if (diverged || stage >= finished.size())
+            return false;
+
+        var outcome = finished.get(stage);
+
+        if (!outcome.module.equals(module.getSimpleName())) {
+            logger.warn("Stage {} applied {} in the previous run - discarding the remaining progress", stage, outcome.module);
+            diverged = true;
+            truncate(stage);
+            return false;
+        }
+
+        scheduler.record(module, outcome.changed, outcome.bytesRemoved, outcome.testNanos);
+
+        return true;
+    }
+
+    /**
+     * Checks whether the given class was already completed in the
+     * given stage.
+     *
+     * @param stage     The index of the stage
+     * @param module    The name of the module of the stage
+     * @param className The name of the class
+     * @return {@code true} if the class can be skipped;
+     * {@code false} otherwise
+     */
+    public synchronized boolean isCompleted(int stage, String module, String className) {
+        return !diverged &&
+                stage == finished.size() &&
+                module.equals(this.module) &&
+                completed.contains(className);
+    }
+
+    /**
+     * Stores the accepted bytecode of the given class.
+     * The file is replaced atomically, so that an interruption
+     * never leaves an incomplete class file.
+     *
+     * @param className The name of the class
+     * @param bytecode  The accepted bytecode
+     */
+    public synchronized void accept(String className, byte[] bytecode) {
+        if (!enabled)
+            return;
+
+        var file = dir.resolve(CLASSES).resolve(className);
+        var temp = dir.resolve(CLASSES).resolve(className + ".tmp");
+
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(temp, bytecode);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not store checkpoint for {}", className, e);
+        }
+    }
+
+    /**
+     * Records that the given class was removed.
+     *
+     * @param className The name of the class
+     */
+    public synchronized void remove(String className) {
+        if (!enabled)
+            return;
+
+        var line = className + System.lineSeparator();
+
+        try {
+            Files.deleteIfExists(dir.resolve(CLASSES).resolve(className));
+            Files.write(
+                    dir.resolve(REMOVED),
+                    line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND
+            );
+        } catch (IOException e) {
+            logger.warn("Could not record the removal of {}", className, e);
+        }
+    }
+
+    /**
+     * Records that the given class is completed in the given stage.
+     *
+     * @param stage     The index of the stage
+     * @param module    The name of the module of the stage
+     * @param className The name of the class
+     */
+    public synchronized void complete(int stage, String module, String className) {
+        if (!enabled)
+            return;
+
+        var line = String.join(" ", CLASS, String.valueOf(stage), module, className);
+
+        try {
+            append(line);
+        } catch (IOException e) {
+            logger.warn("Could not record the completion of {}", className, e);
+        }
+    }
+
+    /**
+     * Records the outcome of the given stage
+     * (see {@link Scheduler#record(Class, boolean, long, long)}).
+     *
+     * @param stage        The index of the stage
+     * @param module       The module of the stage
+     * @param changed      Flag that indicates whether the module changed
+     *                     any bytecode
+     * @param bytesRemoved The number of bytes that the module removed
+     * @param testNanos    The time that the interestingness tests took
+     */
+    public synchronized void finish(int stage,
+                                    Class<? extends Reducer> module,
+                                    boolean changed,
+                                    long bytesRemoved,
+                                    long testNanos) {
+        if (!enabled)
+            return;
+
+        var outcome = new Outcome(module.getSimpleName(), changed, bytesRemoved, testNanos);
+
+        try {
+            append(outcome.toLine(stage));
+        } catch (IOException e) {
+            logger.warn("Could not record the outcome of stage {}", stage, e);
+        }
+    }
+
+    /**
+     * Appends the given line to the journal.
+     *
+     * @param line The journal entry
+     * @throws IOException if the journal cannot be written
+     */
+    private void append(String line) throws IOException {
+        Files.write(
+                dir.resolve(JOURNAL),
+                (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND
+        );
+    }
+
+    /**
+     * Replaces the journal by the outcomes of the given number of stages.
+     *
+     * @param stages The number of stages whose outcomes are retained
+     */
+    private void truncate(int stages) {
+        var lines = new ArrayList<String>(stages);
+
+        for (int i = 0; i < stages; i++)
+            lines.add(finished.get(i).toLine(i));
+
+        try {
+            Files.write(dir.resolve(JOURNAL), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not reset the journal", e);
+        }
+    }
+
+    /**
+     * Removes the checkpoint after the reduction finished.
+     */
+    public void clear() {
+        if (!Files.exists(dir))
+            return;
+
+        try {
+            FileUtils.delete(dir);
+        } catch (IOException e) {
+            logger.warn("Could not remove checkpoint {}", dir, e);
+        }
+    }
+
+    /**
+     * The outcome of a finished stage.
+     */
+    private static final class Outcome {
+        private final String module;
+        private final boolean changed;
+        private final long bytesRemoved;
+        private final long testNanos;
+
+        Outcome(String module, boolean changed, long bytesRemoved, long testNanos) {
+            this.module = module;
+            this.changed = changed;
+            this.bytesRemoved = bytesRemoved;
+            this.testNanos = testNanos;
+        }
+
+        /**
+         * Formats the outcome as journal entry of the given stage.
+         */
+        String toLine(int stage) {
+            return String.join(" ",
+                    STAGE,
+                    String.valueOf(stage),
+                    module,
+                    String.valueOf(changed),
+                    String.valueOf(bytesRemoved),
+                    String.valueOf(testNanos));
+        }
+    }
+}
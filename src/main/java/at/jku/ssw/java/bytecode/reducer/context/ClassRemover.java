@@ -0,0 +1,141 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.runtypes.MemberReducer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Removes whole classes from a {@link BytecodeCache}.
+ * Classes that are not referred to by any other class are removed
+ * one after another first, which may in turn leave further classes
+ * unreferenced.
+ * Afterwards, the remaining classes are removed in groups with the
+ * delta debugging strategy (e.g. classes that only refer to each other).
+ * This stage runs before the modules in order to not reduce classes
+ * that are not required at all.
+ */
+public class ClassRemover {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The classes that are reduced.
+     */
+    private final BytecodeCache cache;
+
+    public ClassRemover(BytecodeCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Attempts to remove as many classes as possible.
+     * The given test has to remove the classes from the cache
+     * if the resulting class file set is interesting.
+     *
+     * @param test The test that determines whether the class file set
+     *             is still interesting if the given classes are removed
+     * @return the classes that were removed
+     */
+    public Set<String> apply(Predicate<Set<String>> test) {
+        var removed = removeUnreferenced(test);
+
+        removed.addAll(ddmin(test));
+
+        logger.info("Removed {} classes", removed.size());
+
+        return removed;
+    }
+
+    /**
+     * Removes the classes that are not referred to by any other class
+     * one at a time.
+     *
+     * @param test The test that determines whether the class file set
+     *             is still interesting if the given classes are removed
+     * @return the classes that were removed
+     */
+    private Set<String> removeUnreferenced(Predicate<Set<String>> test) {
+        var removed  = new HashSet<String>();
+        var rejected = new HashSet<String>();
+
+        boolean progress;
+        do {
+            progress = false;
+
+            for (var className : cache.dependencies().unreferenced()) {
+                if (rejected.contains(className))
+                    continue;
+
+                logger.info("Attempting to remove class " + className);
+
+                if (test.test(Set.of(className))) {
+                    removed.add(className);
+                    progress = true;
+
+                    // the referenced classes may be unreferenced now
+                    break;
+                }
+
+                rejected.add(className);
+            }
+        } while (progress);
+
+        return removed;
+    }
+
+    /**
+     * Removes groups of classes with the delta debugging strategy.
+     * First halves, then quarters (and so on) of the classes are removed
+     * at once until every remaining class fails on its own
+     * (which includes the last remaining class).
+     * The classes are grouped in the order of their dependencies,
+     * so that classes that refer to each other tend to be removed together.
+     *
+     * @param test The test that determines whether the class file set
+     *             is still interesting if the given classes are removed
+     * @return the classes that were removed
+     */
+    private Set<String> ddmin(Predicate<Set<String>> test) {
+        var removed = new HashSet<String>();
+        var classes = new ArrayList<>(cache.dependencies().order());
+
+        int n = 2;
+
+        while (!classes.isEmpty()) {
+            n = Math.min(n, classes.size());
+
+            Set<String> chunk = null;
+
+            for (var c : MemberReducer.partition(classes, n)) {
+                var candidate = new HashSet<>(c);
+
+                logger.info("Attempting to remove {} classes", candidate.size());
+
+                if (test.test(candidate)) {
+                    chunk = candidate;
+                    break;
+                }
+            }
+
+            if (chunk != null) {
+                // continue with the remaining classes
+                classes.removeAll(chunk);
+                removed.addAll(chunk);
+                n = Math.max(n - 1, 2);
+            } else if (n == classes.size()) {
+                // every single class was already attempted
+                break;
+            } else {
+                // increase the granularity
+                n = Math.min(n * 2, classes.size());
+            }
+        }
+
+        return removed;
+    }
+}
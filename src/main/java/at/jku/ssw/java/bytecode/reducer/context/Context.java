@@ -1,5 +1,6 @@
 package at.jku.ssw.java.bytecode.reducer.context;
 
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
 import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
 
 import java.nio.file.Path;
@@ -28,6 +29,27 @@ public class Context {
      */
     public final boolean keepTemp;
 
+    /**
+     * The number of candidates that are tested in parallel.
+     */
+    public final int jobs;
+
+    /**
+     * The interval in milliseconds in which intermediate results are
+     * written to the output directory.
+     */
+    public final long writeInterval;
+
+    /**
+     * The storage for the temporary directories.
+     */
+    public final Storage storage;
+
+    /**
+     * The storage for the output files.
+     */
+    public final Storage output;
+
     /**
      * The available transformation modules in this run.
      */
@@ -36,15 +58,33 @@ public class Context {
     Context(Path outDir,
             Path tempDir,
             List<Class<? extends Reducer>> modules,
-            boolean keepTemp) {
+            boolean keepTemp,
+            int jobs,
+            long writeInterval,
+            Storage storage) {
 
         this.outDir = outDir;
         this.tempDir = tempDir;
         this.keepTemp = keepTemp;
+        this.jobs = jobs;
+        this.writeInterval = writeInterval;
+        this.storage = storage;
+        this.output = Storage.disk("output", outDir);
         this.modules = modules;
     }
 
     public Stream<Class<? extends Reducer>> executionOrder() {
         return modules.stream();
     }
+
+    /**
+     * Creates a scheduler that applies the modules in the
+     * {@link #executionOrder() execution order} first and then repeats
+     * them until no further progress is made.
+     *
+     * @return a new scheduler for the available modules
+     */
+    public Scheduler scheduler() {
+        return new Scheduler(modules);
+    }
 }
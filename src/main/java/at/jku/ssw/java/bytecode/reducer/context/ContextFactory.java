@@ -1,6 +1,8 @@
 package at.jku.ssw.java.bytecode.reducer.context;
 
 import at.jku.ssw.java.bytecode.reducer.errors.DuplicateClassException;
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics;
 import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
 import at.jku.ssw.java.bytecode.reducer.utils.OSUtils;
 import org.apache.logging.log4j.LogManager;
@@ -9,6 +11,9 @@ import org.apache.logging.log4j.Logger;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -35,16 +40,28 @@ public class ContextFactory {
     public static final String DEFAULT_TEMP = ".tmp";
 
     /**
-     * The default timeout in seconds.
+     * The default timeout in milliseconds.
      */
-    public static final long DEFAULT_TIMEOUT = 10;
+    public static final long DEFAULT_TIMEOUT = 10_000;
+
+    /**
+     * The default number of candidates that are tested in parallel.
+     */
+    public static final int DEFAULT_JOBS = 1;
+
+    /**
+     * The default interval in milliseconds in which intermediate results
+     * are written to the output directory.
+     */
+    public static final long DEFAULT_WRITE_INTERVAL = 1000;
 
     // endregion
     //-------------------------------------------------------------------------
     // region Properties
 
     /**
-     * Either relative or absolute paths to the class files.
+     * Either relative or absolute paths to the class files,
+     * JAR files or class path directories.
      */
     private final String[] classFiles;
 
@@ -87,15 +104,85 @@ public class ContextFactory {
     private final PathMatcher scriptMatcher;
 
     /**
-     * Matcher for class files.
+     * Matcher for class files and JAR files.
      */
     private final PathMatcher classMatcher;
 
     /**
-     * Timeout for interestingness test runs.
+     * Timeout in milliseconds for interestingness test runs.
      */
     private final long timeout;
 
+    /**
+     * The multiple of the 99th percentile of the successful run times
+     * after which test runs are interrupted (or {@code -1} to only use
+     * the fixed timeout).
+     */
+    private final double timeoutFactor;
+
+    /**
+     * Number of candidates that are generated and tested in parallel.
+     */
+    private final int jobs;
+
+    /**
+     * Relative or absolute path to the file that stores the known test
+     * results (or {@code null} to only keep them in memory).
+     * If the path is relative, the file is assumed to be located
+     * in the working directory.
+     */
+    private final String resultCache;
+
+    /**
+     * The main class that is run in worker processes instead of the
+     * test scripts (or {@code null} to run the test scripts).
+     */
+    private final String mainClass;
+
+    /**
+     * The pattern that the output of the main class has to contain
+     * (or {@code null} if the output is irrelevant).
+     */
+    private final String pattern;
+
+    /**
+     * The maximum size in megabytes of the temporary directories if they
+     * are kept in memory (or {@code -1} to keep them on disk).
+     */
+    private final long memoryLimit;
+
+    /**
+     * Continue the reduction from the checkpoint of a previous run
+     * instead of starting over.
+     */
+    private final boolean resume;
+
+    /**
+     * Record the progress of the reduction, so that it can be resumed
+     * if it is interrupted (which is implied by {@link #resume}).
+     */
+    private final boolean checkpoint;
+
+    /**
+     * Interval in milliseconds in which the intermediate results are
+     * written to the output directory.
+     */
+    private final long writeInterval;
+
+    /**
+     * Relative or absolute path to the directory that receives the
+     * metrics of the reduction (or {@code null} to not report them).
+     * If the path is relative, the directory is assumed to be located
+     * in the working directory.
+     */
+    private final String metrics;
+
+    /**
+     * Reject candidates that fail the bytecode verification without
+     * running the tests (if the tests require verifiable classes).
+     */
+    private final boolean verify;
+
     /**
      * Possible filters for individual reducers.
      */
@@ -105,27 +192,182 @@ public class ContextFactory {
     //-------------------------------------------------------------------------
     // region Initialization
 
-    public ContextFactory(String[] classFiles,
-                          String[] iTests,
-                          String workingDir,
-                          String outDir,
-                          String tempDir,
-                          String[] filters,
-                          boolean keepTemp,
-                          long timeout) {
-
-        this.classFiles = classFiles;
-        this.iTests = iTests;
-        this.workingDir = workingDir == null ? "" : workingDir;
-        this.outDir = outDir == null ? DEFAULT_OUT : outDir;
-        this.tempDir = tempDir == null ? DEFAULT_TEMP : tempDir;
-        this.keepTemp = keepTemp;
-        this.timeout = timeout == -1 ? DEFAULT_TIMEOUT : timeout;
-        this.filters = filters;
+    /**
+     * Initializes the factory with the options collected by the given builder.
+     *
+     * @param builder The builder that holds the options
+     */
+    private ContextFactory(Builder builder) {
+        this.classFiles = builder.classFiles;
+        this.iTests = builder.iTests;
+        this.workingDir = builder.workingDir == null ? "" : builder.workingDir;
+        this.outDir = builder.outDir == null ? DEFAULT_OUT : builder.outDir;
+        this.tempDir = builder.tempDir == null ? DEFAULT_TEMP : builder.tempDir;
+        this.keepTemp = builder.keepTemp;
+        this.timeout = builder.timeout == -1 ? DEFAULT_TIMEOUT : builder.timeout;
+        this.jobs = builder.jobs == -1 ? DEFAULT_JOBS : builder.jobs;
+        this.resultCache = builder.resultCache;
+        this.mainClass = builder.mainClass;
+        this.pattern = builder.pattern;
+        this.memoryLimit = builder.memoryLimit;
+        this.resume = builder.resume;
+        this.checkpoint = builder.checkpoint;
+        this.writeInterval = builder.writeInterval == -1 ? DEFAULT_WRITE_INTERVAL : builder.writeInterval;
+        this.metrics = builder.metrics;
+        this.timeoutFactor = builder.timeoutFactor;
+        this.verify = builder.verify;
+        this.filters = builder.filters;
 
         String scriptPattern = OSUtils.isWindows() ? "glob:*.bat" : "glob:*.sh";
         scriptMatcher = FileSystems.getDefault().getPathMatcher(scriptPattern);
-        classMatcher = FileSystems.getDefault().getPathMatcher("glob:*.class");
+        classMatcher = FileSystems.getDefault().getPathMatcher("glob:*.{class,jar}");
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Builder
+
+    /**
+     * Creates a new builder where every option is unset.
+     *
+     * @return the new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects the options of a {@link ContextFactory}.
+     * Options that are not set fall back to their defaults
+     * ({@code -1} denotes an unset numeric option).
+     */
+    public static final class Builder {
+        private String[] classFiles = new String[0];
+        private String[] iTests = new String[0];
+        private String workingDir;
+        private String outDir;
+        private String tempDir;
+        private String[] filters = new String[0];
+        private boolean keepTemp;
+        private long timeout = -1;
+        private double timeoutFactor = -1;
+        private int jobs = -1;
+        private String resultCache;
+        private String mainClass;
+        private String pattern;
+        private long memoryLimit = -1;
+        private boolean resume;
+        private boolean checkpoint;
+        private long writeInterval = -1;
+        private String metrics;
+        private boolean verify;
+
+        private Builder() {
+        }
+
+        public Builder classFiles(String... classFiles) {
+            this.classFiles = classFiles;
+            return this;
+        }
+
+        public Builder iTests(String... iTests) {
+            this.iTests = iTests;
+            return this;
+        }
+
+        public Builder workingDir(String workingDir) {
+            this.workingDir = workingDir;
+            return this;
+        }
+
+        public Builder outDir(String outDir) {
+            this.outDir = outDir;
+            return this;
+        }
+
+        public Builder tempDir(String tempDir) {
+            this.tempDir = tempDir;
+            return this;
+        }
+
+        public Builder filters(String... filters) {
+            this.filters = filters;
+            return this;
+        }
+
+        public Builder keepTemp(boolean keepTemp) {
+            this.keepTemp = keepTemp;
+            return this;
+        }
+
+        public Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder timeoutFactor(double timeoutFactor) {
+            this.timeoutFactor = timeoutFactor;
+            return this;
+        }
+
+        public Builder jobs(int jobs) {
+            this.jobs = jobs;
+            return this;
+        }
+
+        public Builder resultCache(String resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        public Builder mainClass(String mainClass) {
+            this.mainClass = mainClass;
+            return this;
+        }
+
+        public Builder pattern(String pattern) {
+            this.pattern = pattern;
+            return this;
+        }
+
+        public Builder memoryLimit(long memoryLimit) {
+            this.memoryLimit = memoryLimit;
+            return this;
+        }
+
+        public Builder resume(boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+
+        public Builder checkpoint(boolean checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        public Builder writeInterval(long writeInterval) {
+            this.writeInterval = writeInterval;
+            return this;
+        }
+
+        public Builder metrics(String metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public Builder verify(boolean verify) {
+            this.verify = verify;
+            return this;
+        }
+
+        /**
+         * Creates the factory with the collected options.
+         *
+         * @return the new context factory
+         */
+        public ContextFactory build() {
+            return new ContextFactory(this);
+        }
     }
 
     // endregion
@@ -142,11 +384,22 @@ public class ContextFactory {
 
         if (keepTemp != that.keepTemp) return false;
         if (timeout != that.timeout) return false;
+        if (jobs != that.jobs) return false;
+        if (memoryLimit != that.memoryLimit) return false;
+        if (resume != that.resume) return false;
+        if (checkpoint != that.checkpoint) return false;
+        if (writeInterval != that.writeInterval) return false;
+        if (verify != that.verify) return false;
+        if (Double.compare(timeoutFactor, that.timeoutFactor) != 0) return false;
         if (!Arrays.equals(classFiles, that.classFiles)) return false;
         if (!Arrays.equals(iTests, that.iTests)) return false;
         if (!workingDir.equals(that.workingDir)) return false;
         if (!outDir.equals(that.outDir)) return false;
         if (!tempDir.equals(that.tempDir)) return false;
+        if (!Objects.equals(resultCache, that.resultCache)) return false;
+        if (!Objects.equals(mainClass, that.mainClass)) return false;
+        if (!Objects.equals(pattern, that.pattern)) return false;
+        if (!Objects.equals(metrics, that.metrics)) return false;
         return Arrays.equals(filters, that.filters);
     }
 
@@ -159,6 +412,17 @@ public class ContextFactory {
         result = 31 * result + tempDir.hashCode();
         result = 31 * result + (keepTemp ? 1 : 0);
         result = 31 * result + (int) (timeout ^ (timeout >>> 32));
+        result = 31 * result + jobs;
+        result = 31 * result + Objects.hashCode(resultCache);
+        result = 31 * result + Objects.hashCode(mainClass);
+        result = 31 * result + Objects.hashCode(pattern);
+        result = 31 * result + (int) (memoryLimit ^ (memoryLimit >>> 32));
+        result = 31 * result + (resume ? 1 : 0);
+        result = 31 * result + (checkpoint ? 1 : 0);
+        result = 31 * result + (int) (writeInterval ^ (writeInterval >>> 32));
+        result = 31 * result + Objects.hashCode(metrics);
+        result = 31 * result + Double.hashCode(timeoutFactor);
+        result = 31 * result + (verify ? 1 : 0);
         result = 31 * result + Arrays.hashCode(filters);
         return result;
     }
@@ -172,6 +436,17 @@ public class ContextFactory {
                 ", outDir='" + outDir + '\'' +
                 ", tempDir='" + tempDir + '\'' +
                 ", filters='" + Arrays.toString(filters) + '\'' +
+                ", jobs=" + jobs +
+                ", resultCache='" + resultCache + '\'' +
+                ", mainClass='" + mainClass + '\'' +
+                ", pattern='" + pattern + '\'' +
+                ", memoryLimit=" + memoryLimit +
+                ", resume=" + resume +
+                ", checkpoint=" + checkpoint +
+                ", writeInterval=" + writeInterval +
+                ", metrics='" + metrics + '\'' +
+                ", timeoutFactor=" + timeoutFactor +
+                ", verify=" + verify +
                 '}';
     }
 
@@ -198,7 +473,11 @@ public class ContextFactory {
                         .anyMatch(f -> f.equalsIgnoreCase(m.getSimpleName())))
                 .collect(Collectors.toList());
 
-        return new Context(outDir, tempDir, modules, keepTemp);
+        var storage = memoryLimit == -1
+                ? Storage.disk("temp", tempDir)
+                : Storage.memory("temp", tempDir, memoryLimit * 1024 * 1024);
+
+        return new Context(outDir, tempDir, modules, keepTemp, jobs, writeInterval, storage);
     }
 
     public BytecodeCache initCache()
@@ -207,20 +486,52 @@ public class ContextFactory {
         Set<Path> classFiles = validate(
                 Paths.get(workingDir).toAbsolutePath(),
                 this.classFiles,
-                classMatcher
+                classMatcher,
+                true
         );
 
         return new BytecodeCache(classFiles);
     }
 
     public TestSuite getTestSuite() throws IOException {
+        if (mainClass != null)
+            return new WorkerTestSuite(mainClass, pattern, timeout, timeoutFactor, jobs);
+
         Set<Path> iTests = validate(
                 Paths.get(this.workingDir).toAbsolutePath(),
                 this.iTests,
-                scriptMatcher
+                scriptMatcher,
+                false
         );
 
-        return new TestSuite(iTests, timeout);
+        return new TestSuite(iTests, timeout, timeoutFactor);
+    }
+
+    public ResultCache initResultCache(TestSuite testSuite) throws IOException {
+        Path file = resultCache == null
+                ? null
+                : Paths.get(workingDir).toAbsolutePath().resolve(resultCache);
+
+        return new ResultCache(testSuite, file);
+    }
+
+    public Checkpoint initCheckpoint(Context context) throws IOException {
+        return new Checkpoint(context.outDir.resolve(Checkpoint.DIR), checkpoint || resume, resume);
+    }
+
+    public Metrics initMetrics() throws IOException {
+        var global = Metrics.global();
+
+        if (metrics != null)
+            global.open(Paths.get(workingDir).toAbsolutePath().resolve(metrics));
+
+        return global;
+    }
+
+    public Optional<BytecodeVerifier> initVerifier() {
+        return verify
+                ? Optional.of(new BytecodeVerifier())
+                : Optional.empty();
     }
 
     // endregion
@@ -233,20 +544,24 @@ public class ContextFactory {
      * @param workingDir The working directory (default reference for relative paths)
      * @param files      The files to analyze
      * @param matcher    The required file ending
+     * @param dirs       Flag that indicates whether directories are valid
      * @return the filtered and verified list of files
      * @throws IOException if the file handlers run into problems
      */
     private Set<Path> validate(Path workingDir,
                                String[] files,
-                               PathMatcher matcher) throws IOException {
+                               PathMatcher matcher,
+                               boolean dirs) throws IOException {
 
         // scan working directory if no targets are given
         if (files.length == 0)
             return FileUtils.scan(workingDir, matcher)
-                    .collect(Collectors.toSet());
+                    .sorted()
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        return resolve(workingDir, files, matcher)
-                .collect(Collectors.toSet());
+        // the given order is retained (e.g. the initial order of the tests)
+        return resolve(workingDir, files, matcher, dirs)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     /**
@@ -257,14 +572,18 @@ public class ContextFactory {
      * @param root    Reference directory for relative paths
      * @param paths   The path descriptors that should be resolved to valid paths
      * @param matcher The required file ending
+     * @param dirs    Flag that indicates whether directories are valid
      * @return a stream of (absolute) paths representing the given descriptors
      */
-    private Stream<Path> resolve(Path root, String[] paths, PathMatcher matcher) {
+    private Stream<Path> resolve(Path root, String[] paths, PathMatcher matcher, boolean dirs) {
         return Arrays.stream(paths)
                 .map(Paths::get)
                 .map(root::resolve)
                 .filter(p -> {
                     if (Files.isDirectory(p)) {
+                        if (dirs)
+                            return true;
+
                         logger.warn("Skipping {} - not a file.", p);
                         return false;
                     } else if (Files.notExists(p)) {
@@ -0,0 +1,172 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.ConstPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static at.jku.ssw.java.bytecode.reducer.context.BytecodeCache.CLASS_EXTENSION;
+
+/**
+ * Index of the references between the classes of a {@link BytecodeCache}.
+ * The references of a class are derived from its constant pool, which
+ * contains the names of all referenced classes (either directly or
+ * within descriptors and signatures).
+ * String constants that contain the name of a class (e.g. for
+ * {@link Class#forName(String)}) are also considered to be references.
+ */
+public class DependencyGraph {
+
+    /**
+     * Matches class types in descriptors and signatures.
+     */
+    private static final Pattern CLASS_TYPE = Pattern.compile("L([^;<>:]+)[;<]");
+
+    /**
+     * Maps each class to the names of all classes its constant pool
+     * refers to (including classes that are not part of the cache).
+     */
+    private final Map<String, Set<String>> names;
+
+    DependencyGraph() {
+        this.names = new HashMap<>();
+    }
+
+    /**
+     * Updates the references of the given class.
+     *
+     * @param className The class that changed
+     * @param bytecode  The new bytecode of the class or {@code null}
+     *                  if the class was removed
+     */
+    void update(String className, byte[] bytecode) {
+        if (bytecode == null)
+            names.remove(className);
+        else
+            names.put(className, referencedNames(bytecode));
+    }
+
+    /**
+     * Returns the classes that the given class refers to.
+     *
+     * @param className The referring class
+     * @return the referenced classes (excluding the class itself)
+     */
+    public Set<String> references(String className) {
+        return names.getOrDefault(className, Set.of()).stream()
+                .filter(c -> !c.equals(className))
+                .filter(names::containsKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the classes that refer to the given class.
+     *
+     * @param className The referenced class
+     * @return the referring classes (excluding the class itself)
+     */
+    public Set<String> referrers(String className) {
+        return names.entrySet().stream()
+                .filter(e -> !e.getKey().equals(className))
+                .filter(e -> e.getValue().contains(className))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the classes that are not referred to by any other class.
+     *
+     * @return the unreferenced classes ordered by name
+     */
+    public List<String> unreferenced() {
+        var referenced = names.entrySet().stream()
+                .flatMap(e -> e.getValue().stream().filter(c -> !c.equals(e.getKey())))
+                .collect(Collectors.toSet());
+
+        return names.keySet().stream()
+                .filter(c -> !referenced.contains(c))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Determines the order in which the classes are reduced.
+     * Every class precedes the classes that it refers to
+     * (except for cyclic references), so that references that are
+     * removed from a class already allow to remove the referenced
+     * members of other classes in the same stage.
+     *
+     * @return all classes in the order of reduction
+     */
+    public List<String> order() {
+        var visited   = new HashSet<String>();
+        var postOrder = new ArrayList<String>(names.size());
+
+        // iterative depth-first search (as the reference chains may be long)
+        for (var root : new TreeSet<>(names.keySet())) {
+            if (!visited.add(root))
+                continue;
+
+            var stack = new ArrayDeque<Map.Entry<String, Iterator<String>>>();
+            stack.push(Map.entry(root, new TreeSet<>(references(root)).iterator()));
+
+            while (!stack.isEmpty()) {
+                var top = stack.peek();
+
+                if (top.getValue().hasNext()) {
+                    var next = top.getValue().next();
+
+                    if (visited.add(next))
+                        stack.push(Map.entry(next, new TreeSet<>(references(next)).iterator()));
+                } else {
+                    postOrder.add(stack.pop().getKey());
+                }
+            }
+        }
+
+        // the post order lists the referenced classes first
+        Collections.reverse(postOrder);
+
+        return postOrder;
+    }
+
+    /**
+     * Collects the names of all classes that the constant pool of the
+     * given bytecode refers to (as class file names).
+     *
+     * @param bytecode The bytecode of the class
+     * @return the names of the referenced classes
+     */
+    private static Set<String> referencedNames(byte[] bytecode) {
+        ConstPool constPool;
+        try {
+            constPool = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytecode))).getConstPool();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid bytecode", e);
+        }
+
+        var result = new HashSet<String>();
+
+        for (int i = 1; i < constPool.getSize(); i++) {
+            if (constPool.getTag(i) != ConstPool.CONST_Utf8)
+                continue;
+
+            var value = constPool.getUtf8Info(i);
+
+            // class names (or string constants that may denote classes)
+            result.add(value.replace('.', '/') + CLASS_EXTENSION);
+
+            // types in descriptors and signatures
+            var matcher = CLASS_TYPE.matcher(value);
+            while (matcher.find())
+                result.add(matcher.group(1) + CLASS_EXTENSION);
+        }
+
+        return result;
+    }
+}
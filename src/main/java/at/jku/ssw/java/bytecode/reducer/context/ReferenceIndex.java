@@ -0,0 +1,258 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
+import at.jku.ssw.java.bytecode.reducer.visitors.ReferenceCollector;
+import at.jku.ssw.java.bytecode.reducer.visitors.ReferenceCollector.Usage;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMember;
+import javassist.CtMethod;
+import javassist.Modifier;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static at.jku.ssw.java.bytecode.reducer.visitors.ReferenceCollector.memberKey;
+import static at.jku.ssw.java.bytecode.reducer.visitors.ReferenceCollector.nameKey;
+
+/**
+ * Index of the field accesses and method calls of all classes
+ * of the {@link BytecodeCache}, which allows to determine whether
+ * a member is used anywhere in the program.
+ * The index is updated whenever a class changes, where only the
+ * references of the changed class are collected again.
+ * The references of the queried classes are also retained, so that
+ * repeated queries of the same version of a class do not scan it again.
+ * If no classes are registered (e.g. if a reducer is applied on its own),
+ * only the references within the reduced class itself are considered.
+ */
+public final class ReferenceIndex {
+
+    /**
+     * The references of the indexed version of each class mapped by
+     * the internal class names.
+     */
+    private final Map<String, Scan> classes;
+
+    /**
+     * The references of the most recently queried version of each class
+     * mapped by the internal class names.
+     */
+    private final Map<String, Scan> queried;
+
+    /**
+     * The sum of the references of all classes.
+     */
+    private final Map<String, Usage> total;
+
+    ReferenceIndex() {
+        this.classes = new HashMap<>();
+        this.queried = new HashMap<>();
+        this.total = new HashMap<>();
+    }
+
+    /**
+     * Returns the index of the classes that are currently reduced by this
+     * thread, which is provided by the {@link BytecodeCache} that serves as
+     * class path (see {@link Javassist#withClassPath}).
+     * Otherwise an empty index is returned.
+     *
+     * @return the index of the reduced program
+     */
+    public static ReferenceIndex current() {
+        var classPath = Javassist.classPath();
+
+        return classPath instanceof BytecodeCache
+                ? ((BytecodeCache) classPath).references()
+                : new ReferenceIndex();
+    }
+
+    /**
+     * Updates the references of the given class.
+     *
+     * @param className The internal name of the class
+     * @param bytecode  The new bytecode of the class or {@code null}
+     *                  if the class was removed
+     */
+    synchronized void update(String className, byte[] bytecode) {
+        var previous = classes.remove(className);
+
+        if (previous != null)
+            previous.usages.forEach((key, usage) -> total.get(key).add(usage, -1));
+
+        if (bytecode == null) {
+            queried.remove(className);
+            return;
+        }
+
+        var scan = find(className, bytecode);
+
+        if (scan == null)
+            scan = new Scan(bytecode, ReferenceCollector.collect(bytecode));
+
+        scan.usages.forEach((key, usage) -> total.computeIfAbsent(key, k -> new Usage()).add(usage, 1));
+        classes.put(className, scan);
+    }
+
+    /**
+     * Determines the references of the given class and combines them with
+     * the references of all other classes.
+     * Classes that were not modified since they were loaded are only
+     * scanned if their bytecode is not already known.
+     *
+     * @param clazz The class whose members are queried
+     * @return the usages of the members of the given class
+     * @throws IOException if the bytecode of the class cannot be generated
+     */
+    public Usages usages(CtClass clazz) throws IOException {
+        var className = clazz.getName().replace('.', '/');
+        var source    = Javassist.source(clazz);
+
+        if (source == null)
+            return new Usages(className, ReferenceCollector.collect(Javassist.bytecode(clazz)));
+
+        synchronized (this) {
+            var scan = find(className, source);
+
+            if (scan == null)
+                scan = new Scan(source, ReferenceCollector.collect(source));
+
+            queried.put(className, scan);
+
+            return new Usages(className, scan.usages);
+        }
+    }
+
+    /**
+     * Looks up the references of the given version of a class.
+     *
+     * @param className The internal name of the class
+     * @param bytecode  The bytecode of the class (which is compared
+     *                  by identity, as the bytecodes are never modified)
+     * @return the known references or {@code null} if the version
+     * was not scanned yet
+     */
+    private Scan find(String className, byte[] bytecode) {
+        for (var scans : List.of(classes, queried)) {
+            var known = scans.get(className);
+
+            if (known != null && known.bytecode == bytecode)
+                return known;
+        }
+
+        return null;
+    }
+
+    /**
+     * Counts the references of all classes except for the given one.
+     */
+    private synchronized boolean isUsedElsewhere(String className, String key) {
+        var sum = total.get(key);
+
+        if (sum == null || !sum.any())
+            return false;
+
+        var scan = classes.get(className);
+        var own  = scan == null ? null : scan.usages.get(key);
+
+        if (own == null)
+            return true;
+
+        var others = new Usage();
+        others.add(sum, 1);
+        others.add(own, -1);
+
+        return others.any();
+    }
+
+    /**
+     * The usages of the members of a single class.
+     */
+    public final class Usages {
+
+        /**
+         * The internal name of the class.
+         */
+        private final String className;
+
+        /**
+         * The references within the class itself.
+         */
+        private final Map<String, Usage> own;
+
+        private Usages(String className, Map<String, Usage> own) {
+            this.className = className;
+            this.own = own;
+        }
+
+        /**
+         * Checks whether the given field is never accessed, except for
+         * assignments in the initializers of its class.
+         *
+         * @param field The field
+         * @return {@code true} if the field is unused; {@code false} otherwise
+         */
+        public boolean isUnused(CtField field) {
+            var usage = own(field);
+
+            return usage.reads == 0 &&
+                    usage.writes == 0 &&
+                    !isUsedElsewhere(className, key(field));
+        }
+
+        /**
+         * Checks whether the given field is never read.
+         *
+         * @param field The field
+         * @return {@code true} if the field is only written;
+         * {@code false} otherwise
+         */
+        public boolean isWriteOnly(CtField field) {
+            return own(field).reads == 0 && !isUsedElsewhere(className, key(field));
+        }
+
+        /**
+         * Checks whether the given method is never called,
+         * except for recursive calls.
+         *
+         * @param method The method
+         * @return {@code true} if the method is unused; {@code false} otherwise
+         */
+        public boolean isUnused(CtMethod method) {
+            return own(method).calls == 0 && !isUsedElsewhere(className, key(method));
+        }
+
+        /**
+         * Retrieves the references of the given member within the class.
+         */
+        private Usage own(CtMember member) {
+            return own.getOrDefault(key(member), new Usage());
+        }
+
+        /**
+         * Determines the key of the given member.
+         * Private members are only accessible by their declaring class,
+         * while other members may also be accessed via subclasses.
+         */
+        private String key(CtMember member) {
+            return Modifier.isPrivate(member.getModifiers())
+                    ? memberKey(className, member.getName(), member.getSignature())
+                    : nameKey(member.getName(), member.getSignature());
+        }
+    }
+
+    /**
+     * The references of a single version of a class.
+     */
+    private static final class Scan {
+        private final byte[] bytecode;
+        private final Map<String, Usage> usages;
+
+        Scan(byte[] bytecode, Map<String, Usage> usages) {
+            this.bytecode = bytecode;
+            this.usages = usages;
+        }
+    }
+}
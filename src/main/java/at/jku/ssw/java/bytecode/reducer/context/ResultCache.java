@@ -0,0 +1,207 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the outcomes of interestingness tests.
+ * Each outcome is identified by a hash of all class files that were
+ * tested as well as the contents of the test scripts, which allows
+ * to skip tests for class file sets that were already tested.
+ * The results may also be stored in a file to share them
+ * between multiple reductions.
+ */
+public class ResultCache {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The hash algorithm to use.
+     */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Marker for interesting results in the cache file.
+     */
+    private static final String INTERESTING = "1";
+
+    /**
+     * Marker for results that are not interesting in the cache file.
+     */
+    private static final String NOT_INTERESTING = "0";
+
+    /**
+     * Maps the hashes to the known outcomes.
+     */
+    private final Map<String, Boolean> results;
+
+    /**
+     * The hash of the test scripts.
+     */
+    private final byte[] testDigest;
+
+    /**
+     * The file that the results are written to (or {@code null} if the
+     * results are only stored in memory).
+     */
+    private final Path file;
+
+    /**
+     * Initialize a new result cache for the given test suite.
+     * If a file is given, previous results are loaded from it and
+     * new results are appended.
+     *
+     * @param testSuite The test suite whose results are cached
+     * @param file      The file that stores the results or {@code null}
+     * @throws IOException if the test scripts or the cache file
+     *                     cannot be read
+     */
+    ResultCache(TestSuite testSuite, Path file) throws IOException {
+        this.results = new ConcurrentHashMap<>();
+        this.testDigest = testSuite.digest(digest());
+        this.file = file;
+
+        if (file != null && Files.exists(file)) {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+            for (var line : lines) {
+                var parts = line.split(" ");
+
+                if (parts.length == 2)
+                    results.put(parts[0], INTERESTING.equals(parts[1]));
+            }
+
+            logger.info("Loaded {} known test results from {}", results.size(), file);
+        }
+    }
+
+    /**
+     * Computes the key of the current state of the given bytecode cache
+     * where the given class is replaced by the given bytecode.
+     *
+     * @param cache     The bytecode cache
+     * @param className The class that is replaced
+     * @param bytecode  The bytecode of the replaced class
+     * @return a key that identifies the class file set
+     */
+    public String key(BytecodeCache cache, String className, byte[] bytecode) {
+        // hash the candidate without blocking other workers
+        var hash = BytecodeCache.hash(className, bytecode);
+
+        byte[] classes;
+        synchronized (cache) {
+            classes = cache.digest(className, hash);
+        }
+
+        return key(classes);
+    }
+
+    /**
+     * Computes the key of the current state of the given bytecode cache
+     * where the given classes are removed.
+     *
+     * @param cache   The bytecode cache
+     * @param removed The classes that are removed
+     * @return a key that identifies the class file set
+     */
+    public String key(BytecodeCache cache, Set<String> removed) {
+        byte[] classes;
+        synchronized (cache) {
+            classes = cache.digest(removed);
+        }
+
+        return key(classes);
+    }
+
+    /**
+     * Combines the digest of the tests and of the given class file set.
+     *
+     * @param classes The digest of the class file set
+     * @return the key that identifies the test run
+     */
+    private String key(byte[] classes) {
+        var md = digest();
+
+        md.update(testDigest);
+        md.update(classes);
+
+        return hex(md.digest());
+    }
+
+    /**
+     * Retrieves the known result for the given key.
+     *
+     * @param key The key that identifies the class file set
+     * @return the result or nothing if this class file set was not tested
+     */
+    public Optional<Boolean> get(String key) {
+        return Optional.ofNullable(results.get(key));
+    }
+
+    /**
+     * Stores the result of the given class file set.
+     *
+     * @param key    The key that identifies the class file set
+     * @param result The outcome of the test
+     */
+    public void put(String key, boolean result) {
+        if (results.put(key, result) != null || file == null)
+            return;
+
+        var line = key + " " + (result ? INTERESTING : NOT_INTERESTING) + System.lineSeparator();
+
+        synchronized (this) {
+            try {
+                Files.write(
+                        file,
+                        line.getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND
+                );
+            } catch (IOException e) {
+                logger.warn("Could not store test result in {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Converts the given hash to a hexadecimal string.
+     *
+     * @param hash The hash value
+     * @return the hexadecimal representation
+     */
+    private static String hex(byte[] hash) {
+        var sb = new StringBuilder(hash.length * 2);
+
+        for (byte b : hash)
+            sb.append(String.format("%02x", b));
+
+        return sb.toString();
+    }
+
+    /**
+     * Creates a new instance of the hash function.
+     *
+     * @return a new {@link MessageDigest}
+     */
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
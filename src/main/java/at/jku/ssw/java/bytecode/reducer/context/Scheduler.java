@@ -0,0 +1,196 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.annot.Expensive;
+import at.jku.ssw.java.bytecode.reducer.annot.Sound;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Determines the order in which the modules are applied.
+ * The first pass applies the modules in the given order.
+ * Afterwards, the modules are applied in further passes until a pass
+ * does not change any bytecode anymore. Those passes order the modules by
+ * the number of bytes they removed per second of testing (where sound
+ * modules are preferred and expensive modules are deferred in case of
+ * ties) and skip modules that are not expected to make progress.
+ */
+public class Scheduler {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The number of consecutive runs without progress after which
+     * an expensive module is no longer applied.
+     */
+    static final int PATIENCE = 2;
+
+    /**
+     * The maximum number of passes (as a safeguard against modules
+     * that keep changing the bytecodes without reducing them).
+     */
+    static final int MAX_PASSES = 16;
+
+    /**
+     * The statistics of all modules.
+     */
+    private final Map<Class<? extends Reducer>, Stats> stats;
+
+    /**
+     * The modules of the current pass that were not yet applied.
+     */
+    private final Deque<Class<? extends Reducer>> pass;
+
+    /**
+     * The number of runs that made progress (serves as version number
+     * of the current bytecodes).
+     */
+    private int progress;
+
+    /**
+     * The value of {@link #progress} at the beginning of the current pass.
+     */
+    private int passStart;
+
+    /**
+     * The number of started passes.
+     */
+    private int passes = 1;
+
+    /**
+     * Initialize a new scheduler for the given modules.
+     *
+     * @param modules The modules in the order of the first pass
+     */
+    Scheduler(List<Class<? extends Reducer>> modules) {
+        this.stats = new LinkedHashMap<>();
+        this.pass = new ArrayDeque<>(modules);
+
+        modules.forEach(m -> stats.computeIfAbsent(m, Stats::new));
+    }
+
+    /**
+     * Determines the next module to apply.
+     *
+     * @return the next module or nothing if no module is expected
+     * to make any further progress
+     */
+    public Optional<Class<? extends Reducer>> next() {
+        if (pass.isEmpty()) {
+            // a pass without progress reached the fixpoint
+            if (progress == passStart || passes == MAX_PASSES)
+                return Optional.empty();
+
+            passes++;
+            passStart = progress;
+            pass.addAll(nextPass());
+
+            logger.info("Starting next pass with {} modules", pass.size());
+        }
+
+        return Optional.ofNullable(pass.poll());
+    }
+
+    /**
+     * Records the outcome of a module run.
+     *
+     * @param module       The module that was applied
+     * @param changed      Flag that indicates whether the module changed
+     *                     any bytecode
+     * @param bytesRemoved The number of bytes that the module removed
+     * @param testNanos    The time that the interestingness tests took
+     */
+    public void record(Class<? extends Reducer> module,
+                       boolean changed,
+                       long bytesRemoved,
+                       long testNanos) {
+        var s = stats.computeIfAbsent(module, Stats::new);
+
+        s.bytesRemoved += Math.max(bytesRemoved, 0);
+        s.testNanos += testNanos;
+
+        // modules may also make progress without removing bytes
+        // (e.g. by replacing instructions with NOPs)
+        if (changed) {
+            progress++;
+            s.failures = 0;
+        } else {
+            s.failures++;
+        }
+
+        s.lastRun = progress;
+    }
+
+    /**
+     * Determines the modules of the next pass.
+     * Modules whose last run made no progress are skipped if no other
+     * module changed the bytecodes since then, and expensive modules
+     * are skipped if they repeatedly made no progress.
+     *
+     * @return the modules of the next pass in the order of application
+     */
+    private List<Class<? extends Reducer>> nextPass() {
+        return stats.values().stream()
+                .filter(s -> s.failures == 0 || s.lastRun < progress)
+                .filter(s -> s.failures < PATIENCE || s.prior() >= 0)
+                .sorted(Comparator
+                        .comparingDouble(Stats::score).reversed()
+                        .thenComparing(Comparator.comparingInt(Stats::prior).reversed()))
+                .map(s -> s.module)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The measurements of a single module.
+     */
+    private static final class Stats {
+        private final Class<? extends Reducer> module;
+
+        /**
+         * The total number of bytes that the module removed.
+         */
+        private long bytesRemoved;
+
+        /**
+         * The total time of the tests that the module required.
+         */
+        private long testNanos;
+
+        /**
+         * The number of consecutive runs without progress.
+         */
+        private int failures;
+
+        /**
+         * The progress counter after the last run of the module.
+         */
+        private int lastRun = -1;
+
+        Stats(Class<? extends Reducer> module) {
+            this.module = module;
+        }
+
+        /**
+         * The number of bytes removed per second of testing.
+         */
+        double score() {
+            if (testNanos == 0)
+                return bytesRemoved > 0 ? Double.POSITIVE_INFINITY : 0;
+
+            return bytesRemoved / (testNanos / 1e9);
+        }
+
+        /**
+         * The estimated benefit of the module based on its annotations.
+         */
+        int prior() {
+            if (module.isAnnotationPresent(Expensive.class))
+                return -1;
+
+            return module.isAnnotationPresent(Sound.class) ? 1 : 0;
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package at.jku.ssw.java.bytecode.reducer.context;
 
 import at.jku.ssw.java.bytecode.reducer.io.ScriptRunner;
-import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Class that keeps track of interestingness tests and provides
  * methods to run those in a given directory.
+ * The tests are run as a pipeline that stops at the first failing test.
+ * Initially, the tests run in the given order. Afterwards, they are
+ * ordered by their rejection rate per millisecond, so that cheap tests
+ * that reject most candidates (e.g. compilation checks) run before
+ * expensive tests.
  */
-public class TestSuite {
+public class TestSuite implements AutoCloseable {
 
     private static final Logger logger = LogManager.getLogger();
 
@@ -23,45 +41,239 @@ public class TestSuite {
      */
     private final Set<Path> iTests;
 
+    /**
+     * The run statistics of each test.
+     */
+    private final Map<Path, Statistics> statistics;
+
+    /**
+     * The most recent order of the tests (to log changes).
+     */
+    private volatile List<Path> lastOrder;
+
     private final ScriptRunner scriptRunner;
 
-    TestSuite(Set<Path> iTests, long timeout) {
+    TestSuite(Set<Path> iTests, long timeout, double timeoutFactor) {
         this.iTests = iTests;
-        scriptRunner = new ScriptRunner(timeout);
+        this.statistics = new LinkedHashMap<>();
+        iTests.forEach(itest -> statistics.put(itest, new Statistics()));
+        scriptRunner = new ScriptRunner(timeout, timeoutFactor);
+    }
+
+    /**
+     * Computes the digest of the names and contents of all tests.
+     *
+     * @param digest The digest to use
+     * @return the resulting hash
+     * @throws IOException if a test file cannot be read
+     */
+    byte[] digest(MessageDigest digest) throws IOException {
+        var tests = iTests.stream()
+                .sorted()
+                .collect(Collectors.toList());
+
+        // every field is prefixed with its length
+        // (so that different splits of the same bytes differ)
+        for (var itest : tests) {
+            var name    = itest.getFileName().toString().getBytes(StandardCharsets.UTF_8);
+            var content = Files.readAllBytes(itest);
+
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(name.length).array());
+            digest.update(name);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(content.length).array());
+            digest.update(content);
+        }
+
+        return digest.digest();
+    }
+
+    /**
+     * Places the test files in the given directory, so that the tests can
+     * be run there repeatedly (see {@link #test(Path)}).
+     * The files are linked instead of copied where possible.
+     *
+     * @param testDir The working directory of the tests
+     * @param storage The storage of the working directory
+     * @throws IOException if a test cannot be placed in the directory
+     */
+    public void prepare(Path testDir, Storage storage) throws IOException {
+        for (var itest : iTests)
+            storage.link(itest, testDir.resolve(itest.getFileName()));
     }
 
     /**
      * Runs all contained tests in the given directory.
-     * This method first copies all test files and then executes them
-     * in order.
+     * The directory has to be {@link #prepare(Path, Storage) prepared} before,
+     * then the tests are executed in order.
+     * Concurrent invocations are allowed as long as they use
+     * different directories.
      *
      * @param testDir The working directory of the tests
-     * @return {@code true} if all tests succeeded, {@code false} if any test
-     * fails
+     * @return the outcome of the tests
+     */
+    public Outcome test(Path testDir) {
+        var start = System.nanoTime();
+
+        try {
+            return runTests(testDir);
+        } finally {
+            Metrics.global().since(Stage.TEST, start);
+        }
+    }
+
+    /**
+     * Runs all contained tests in the given directory in order
+     * until the first test fails (see {@link #test(Path)}).
+     *
+     * @param testDir The working directory of the tests
+     * @return the outcome of the first test that did not pass
+     * or {@link Outcome#PASSED} if all tests passed
+     */
+    Outcome runTests(Path testDir) {
+        for (var itest : order()) {
+            var script = testDir.resolve(itest.getFileName());
+
+            // a missing test must not let the candidate pass
+            // (but does not tell anything about the candidate)
+            if (!Files.exists(script)) {
+                logger.warn("Test '{}' is missing in {}", itest.getFileName(), testDir);
+                return Outcome.UNKNOWN;
+            }
+
+            var start   = System.nanoTime();
+            var outcome = run(script);
+
+            // the outcome of cancelled runs is not meaningful
+            if (!Thread.currentThread().isInterrupted())
+                statistics.get(itest).record(outcome == Outcome.PASSED, System.nanoTime() - start);
+
+            if (outcome != Outcome.PASSED)
+                return outcome;
+        }
+
+        return Outcome.PASSED;
+    }
+
+    /**
+     * Determines the order in which the tests are run.
+     * Tests with higher rejection rates per millisecond are run first,
+     * while ties keep the given order.
+     *
+     * @return the tests in the order of execution
+     */
+    List<Path> order() {
+        var scores = new HashMap<Path, Double>();
+        statistics.forEach((itest, s) -> scores.put(itest, s.score()));
+
+        var order = new ArrayList<>(statistics.keySet());
+        order.sort(Comparator.comparing(scores::get, Comparator.reverseOrder()));
+
+        if (!order.equals(lastOrder)) {
+            logger.debug("Running tests in order {}", order);
+            lastOrder = order;
+        }
+
+        return order;
+    }
+
+    /**
+     * Runs a single test script.
+     *
+     * @param itest The test script
+     * @return the outcome of the test
+     */
+    private Outcome run(Path itest) {
+        var file = itest.getFileName();
+
+        try {
+            var exitCode = scriptRunner.execBlocking(itest);
+
+            if (exitCode == ScriptRunner.EXIT_SUCCESS) {
+                logger.info("Test '{}' succeeded", file);
+                return Outcome.PASSED;
+            } else if (exitCode == ScriptRunner.EXIT_TIMEOUT) {
+                logger.info("Test '{}' timed out", file);
+                return Outcome.UNKNOWN;
+            }
+
+            logger.info("Test '{}' failed with exit code {}", file, exitCode);
+            return Outcome.FAILED;
+
+        } catch (InterruptedException e) {
+            logger.debug("Test '{}' was cancelled", file);
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.fatal(e);
+        }
+
+        return Outcome.UNKNOWN;
+    }
+
+    /**
+     * Releases the resources that are held by the tests.
      */
-    public final boolean test(Path testDir) {
-        return FileUtils.copy(iTests.stream(), testDir)
-                .allMatch(itest -> {
-                    var file = itest.getFileName();
-
-                    try {
-                        var exitCode = scriptRunner.execBlocking(itest);
-
-                        if (exitCode == ScriptRunner.EXIT_SUCCESS) {
-                            logger.info("Test '{}' succeeded", file);
-                            return true;
-                        } else if (exitCode == ScriptRunner.EXIT_TIMEOUT) {
-                            logger.info("Test '{}' timed out", file);
-                            return false;
-                        }
-
-                        logger.info("Test '{}' failed with exit code {}", file, exitCode);
-
-                    } catch (IOException | InterruptedException e) {
-                        logger.fatal(e);
-                    }
-
-                    return false;
-                });
+    @Override
+    public void close() {
+        // scripts run in separate processes that terminate on their own
+    }
+
+    /**
+     * The outcome of a test run.
+     */
+    public enum Outcome {
+        /**
+         * All tests succeeded, the candidate is interesting.
+         */
+        PASSED,
+
+        /**
+         * A test failed, the candidate is not interesting.
+         */
+        FAILED,
+
+        /**
+         * A test timed out, crashed or could not be run.
+         * The candidate is not accepted, but the outcome depends on the
+         * circumstances of the run and must not be cached.
+         */
+        UNKNOWN
+    }
+
+    /**
+     * The number of runs, rejections and the total run time of a test.
+     */
+    static final class Statistics {
+        private long runs;
+        private long rejections;
+        private long nanos;
+
+        /**
+         * Records the outcome of a single run.
+         *
+         * @param passed {@code true} if the test succeeded
+         * @param nanos  The run time in nanoseconds
+         */
+        synchronized void record(boolean passed, long nanos) {
+            this.runs++;
+            this.nanos += nanos;
+
+            if (!passed)
+                this.rejections++;
+        }
+
+        /**
+         * Computes the expected rejections per millisecond.
+         * The estimates are smoothed, so that tests that did not run yet
+         * are assumed to reject half of the candidates in a millisecond
+         * (which lets them run early to gather statistics).
+         *
+         * @return the rejection rate per millisecond
+         */
+        synchronized double score() {
+            double rate = (rejections + 1.0) / (runs + 2.0);
+            double cost = runs == 0 ? 1.0 : Math.max(1.0, nanos / 1e6 / runs);
+
+            return rate / cost;
+        }
     }
 }
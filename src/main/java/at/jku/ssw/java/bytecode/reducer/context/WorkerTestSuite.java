@@ -0,0 +1,114 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.io.ScriptRunner;
+import at.jku.ssw.java.bytecode.reducer.io.TestWorker;
+import at.jku.ssw.java.bytecode.reducer.io.WorkerPool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Set;
+
+/**
+ * Test suite that runs the main method of a given class in persistent
+ * worker processes instead of executing test scripts.
+ * A result is interesting if the main method terminates normally and
+ * its output contains the given pattern.
+ */
+public class WorkerTestSuite extends TestSuite {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The fully qualified name of the main class.
+     */
+    private final String mainClass;
+
+    /**
+     * The pattern that the output has to contain
+     * (or {@code null} if the output is irrelevant).
+     */
+    private final String pattern;
+
+    private final WorkerPool workerPool;
+
+    WorkerTestSuite(String mainClass, String pattern, long timeout, double timeoutFactor, int workers) {
+        super(Set.of(), timeout, timeoutFactor);
+        this.mainClass = mainClass;
+        this.pattern = pattern;
+        this.workerPool = new WorkerPool(mainClass, pattern, timeout, timeoutFactor, workers);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    byte[] digest(MessageDigest digest) {
+        var main = mainClass.getBytes(StandardCharsets.UTF_8);
+
+        // every field is prefixed with its length
+        // (a missing pattern differs from an empty one)
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(main.length).array());
+        digest.update(main);
+
+        if (pattern == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+        } else {
+            var bytes = pattern.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            digest.update(bytes);
+        }
+
+        return digest.digest();
+    }
+
+    /**
+     * Runs the main class with the class files in the given directory.
+     *
+     * @param testDir The directory that contains the class files
+     * @return the outcome of the test
+     */
+    @Override
+    Outcome runTests(Path testDir) {
+        try {
+            var exitCode = workerPool.execBlocking(testDir);
+
+            if (exitCode == ScriptRunner.EXIT_SUCCESS) {
+                logger.info("Test '{}' succeeded", mainClass);
+                return Outcome.PASSED;
+            } else if (exitCode == ScriptRunner.EXIT_TIMEOUT) {
+                logger.info("Test '{}' timed out", mainClass);
+                return Outcome.UNKNOWN;
+            } else if (exitCode == WorkerPool.EXIT_CRASH) {
+                logger.info("Test '{}' crashed the worker", mainClass);
+                return Outcome.UNKNOWN;
+            } else if (exitCode == TestWorker.EXIT_MISMATCH) {
+                logger.info("Test '{}' did not match the expected output", mainClass);
+                return Outcome.FAILED;
+            }
+
+            logger.info("Test '{}' failed with exit code {}", mainClass, exitCode);
+            return Outcome.FAILED;
+
+        } catch (InterruptedException e) {
+            logger.debug("Test '{}' was cancelled", mainClass);
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.fatal(e);
+        }
+
+        return Outcome.UNKNOWN;
+    }
+
+    /**
+     * Terminates the worker processes.
+     */
+    @Override
+    public void close() {
+        workerPool.close();
+    }
+}
@@ -0,0 +1,138 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Determines the timeout of test runs based on the run times of
+ * previous successful runs of the same test.
+ * Once enough runs were observed, a run is interrupted if it takes
+ * longer than the given multiple of the 99th percentile of the recent
+ * successful runs, which prevents candidates that loop forever from
+ * blocking the reduction for the whole fixed timeout.
+ * The fixed timeout remains the upper bound.
+ */
+public class AdaptiveTimeout {
+
+    /**
+     * The number of successful runs that are required before the
+     * timeout is adapted.
+     */
+    static final int MIN_SAMPLES = 10;
+
+    /**
+     * The number of recent successful runs that are considered.
+     */
+    static final int WINDOW = 200;
+
+    /**
+     * The percentile of the run times that is multiplied.
+     */
+    static final double PERCENTILE = 0.99;
+
+    /**
+     * The lower bound of the adapted timeout in milliseconds
+     * (to tolerate the scheduling jitter of very short runs).
+     */
+    static final long MIN_TIMEOUT = 100;
+
+    /**
+     * The fixed timeout in milliseconds.
+     */
+    private final long limit;
+
+    /**
+     * The multiple of the percentile that determines the timeout
+     * (or a value {@code <= 0} to always use the fixed timeout).
+     */
+    private final double factor;
+
+    /**
+     * The run times of the recent successful runs of each test.
+     */
+    private final Map<String, Samples> samples;
+
+    /**
+     * Initialize a new adaptive timeout.
+     *
+     * @param limit  The fixed timeout in milliseconds
+     * @param factor The multiple of the 99th percentile of the successful
+     *               run times or a value {@code <= 0} to disable the
+     *               adaptation
+     */
+    public AdaptiveTimeout(long limit, double factor) {
+        this.limit = limit;
+        this.factor = factor;
+        this.samples = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Determines the timeout for the next run of the given test.
+     *
+     * @param test The name of the test
+     * @return the timeout in milliseconds
+     */
+    public long get(String test) {
+        if (factor <= 0)
+            return limit;
+
+        var s = samples.get(test);
+
+        if (s == null)
+            return limit;
+
+        long percentile = s.percentile(PERCENTILE);
+
+        if (percentile < 0)
+            return limit;
+
+        long adapted = (long) Math.ceil(factor * percentile);
+
+        return Math.min(limit, Math.max(MIN_TIMEOUT, adapted));
+    }
+
+    /**
+     * Records the run time of a successful run of the given test.
+     *
+     * @param test   The name of the test
+     * @param millis The run time in milliseconds
+     */
+    public void success(String test, long millis) {
+        if (factor > 0)
+            samples.computeIfAbsent(test, t -> new Samples()).add(millis);
+    }
+
+    /**
+     * Ring buffer of the most recent run times.
+     */
+    private static final class Samples {
+        private final long[] values = new long[WINDOW];
+        private int size;
+        private int next;
+
+        synchronized void add(long value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            size = Math.min(size + 1, values.length);
+        }
+
+        /**
+         * Determines the given percentile of the recorded values.
+         *
+         * @return the percentile or {@code -1} if there are not
+         * enough values
+         */
+        synchronized long percentile(double p) {
+            if (size < MIN_SAMPLES)
+                return -1;
+
+            var sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+
+            int index = (int) Math.ceil(p * size) - 1;
+
+            return sorted[Math.max(0, Math.min(index, size - 1))];
+        }
+    }
+}
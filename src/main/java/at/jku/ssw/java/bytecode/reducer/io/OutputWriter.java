@@ -0,0 +1,233 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the intermediate results to the output directory in the
+ * background, so that the reduction does not wait for the file system.
+ * Submitted bytecodes are collected and written in regular intervals,
+ * where multiple updates of the same class in between are coalesced and
+ * only the classes that changed are written.
+ * Every class file is replaced atomically, so that the output directory
+ * never contains incomplete files.
+ * Classes that were read from JAR files are written to a copy of the
+ * JAR file in the output directory instead, where only the changed entries
+ * are updated in the meantime and the JAR file itself is replaced once
+ * the writer is closed (see {@link Storage.Archive}).
+ */
+public class OutputWriter implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Marks classes that are removed from the output.
+     */
+    private static final byte[] REMOVED = new byte[0];
+
+    /**
+     * The output directory.
+     */
+    private final Path dir;
+
+    /**
+     * The storage that writes the files.
+     */
+    private final Storage storage;
+
+    /**
+     * Maps the classes that were read from JAR files to the
+     * corresponding JAR file in the output directory.
+     */
+    private final Map<String, Storage.Archive> archives;
+
+    /**
+     * The latest bytecodes that were not yet written, mapped by file name.
+     */
+    private final Map<String, byte[]> pending;
+
+    /**
+     * Executor that periodically flushes the pending bytecodes.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Flushes the pending bytecodes and writes the JAR files
+     * if the JVM is shut down before the writer is closed.
+     */
+    private final Thread shutdownHook;
+
+    /**
+     * Initialize a new writer for the given output directory.
+     *
+     * @param dir      The output directory
+     * @param storage  The storage that writes the files
+     * @param interval The interval in milliseconds in which
+     *                 the pending bytecodes are written
+     * @param archives The classes that were read from JAR files mapped
+     *                 to the corresponding (input) JAR file
+     * @throws IOException if the output directory cannot be created
+     *                     or the JAR files cannot be copied
+     */
+    public OutputWriter(Path dir, Storage storage, long interval, Map<String, Path> archives) throws IOException {
+        this.dir = storage.createDirectories(dir);
+        this.storage = storage;
+        this.archives = new HashMap<>();
+        this.pending = new ConcurrentHashMap<>();
+
+        // the JAR files are copied (including all resources),
+        // afterwards only the reduced classes are replaced
+        var names  = new HashSet<Path>();
+        var copies = new HashMap<Path, Storage.Archive>();
+        for (var archive : new HashSet<>(archives.values())) {
+            var copy = dir.resolve(archive.getFileName());
+
+            if (!names.add(copy))
+                throw new IOException("Multiple JAR files are named " + archive.getFileName());
+
+            storage.copy(archive, copy);
+            copies.put(archive, storage.open(copy));
+        }
+
+        archives.forEach((fileName, archive) -> this.archives.put(fileName, copies.get(archive)));
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "output-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+
+        this.shutdownHook = new Thread(this::finish);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Schedules the given bytecode to be written to the output directory.
+     * A previously submitted bytecode of the same file that was not
+     * yet written is discarded.
+     *
+     * @param fileName The name of the class file
+     * @param bytecode The bytecode to write (which is not copied)
+     */
+    public void submit(String fileName, byte[] bytecode) {
+        pending.put(fileName, bytecode);
+    }
+
+    /**
+     * Schedules the given class file to be removed from
+     * the output directory.
+     *
+     * @param fileName The name of the class file
+     */
+    public void remove(String fileName) {
+        pending.put(fileName, REMOVED);
+    }
+
+    /**
+     * Writes all pending bytecodes to the output directory.
+     * Bytecodes that cannot be written remain pending
+     * (unless they are superseded meanwhile).
+     */
+    public synchronized void flush() {
+        var updates = new HashMap<Storage.Archive, Map<String, byte[]>>();
+
+        for (var fileName : pending.keySet()) {
+            // bytecodes that are submitted meanwhile are
+            // written by the next flush
+            var bytecode = pending.remove(fileName);
+
+            if (bytecode == null)
+                continue;
+
+            // classes of the same archive are written at once
+            var archive = archives.get(fileName);
+            if (archive != null) {
+                updates.computeIfAbsent(archive, a -> new HashMap<>())
+                        .put(fileName, bytecode == REMOVED ? null : bytecode);
+                continue;
+            }
+
+            try {
+                var file = dir.resolve(fileName);
+
+                if (bytecode == REMOVED) {
+                    if (Files.exists(file))
+                        storage.delete(file);
+
+                    continue;
+                }
+
+                if (!Files.isDirectory(file.getParent()))
+                    storage.createDirectories(file.getParent());
+
+                storage.replace(file, bytecode);
+            } catch (IOException e) {
+                logger.fatal(e);
+                pending.putIfAbsent(fileName, bytecode);
+            }
+        }
+
+        updates.forEach((archive, entries) -> {
+            try {
+                archive.update(entries);
+            } catch (IOException e) {
+                logger.fatal(e);
+                entries.forEach((fileName, bytecode) ->
+                        pending.putIfAbsent(fileName, bytecode == null ? REMOVED : bytecode));
+            }
+        });
+    }
+
+    /**
+     * Stops the periodic writes and writes the remaining bytecodes
+     * and the JAR files.
+     * A running flush is completed (instead of interrupted), as an
+     * interrupted write would lose its bytecodes.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is already shutting down and runs the hook
+        }
+
+        finish();
+    }
+
+    /**
+     * Writes the remaining bytecodes and replaces the JAR files
+     * by their updated copies.
+     */
+    private synchronized void finish() {
+        flush();
+
+        for (var archive : new HashSet<>(archives.values())) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                logger.fatal(e);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package at.jku.ssw.java.bytecode.reducer.io;
 
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Stage;
 import at.jku.ssw.java.bytecode.reducer.utils.OSUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -21,10 +23,22 @@ public class ScriptRunner {
 
     public static final int EXIT_TIMEOUT = 9;
 
-    private final long timeout;
+    /**
+     * The timeouts of the test runs.
+     */
+    private final AdaptiveTimeout timeouts;
 
-    public ScriptRunner(long timeout) {
-        this.timeout = timeout;
+    /**
+     * Initialize a new script runner.
+     *
+     * @param timeout The timeout in milliseconds for a single test run
+     * @param factor  The multiple of the 99th percentile of the successful
+     *                run times after which runs are interrupted
+     *                (or a value {@code <= 0} to only use the fixed timeout)
+     * @see AdaptiveTimeout
+     */
+    public ScriptRunner(long timeout, double factor) {
+        this.timeouts = new AdaptiveTimeout(timeout, factor);
     }
 
     /**
@@ -59,19 +73,51 @@ public class ScriptRunner {
     public int execBlocking(Path script)
             throws IOException, InterruptedException {
 
+        final var metrics = Metrics.global();
+        final var test    = script.getFileName().toString();
+        final var timeout = timeouts.get(test);
+
+        var begin   = System.nanoTime();
         var process = exec(script);
+        metrics.since(Stage.SPAWN, begin);
+
+        try {
+            var start     = System.nanoTime();
+            var completed = process.waitFor(timeout, TimeUnit.MILLISECONDS);
+            metrics.since(Stage.EXECUTE, start);
 
-        if (!process.waitFor(timeout, TimeUnit.SECONDS)) {
-            logger.warn("Execution of test {} took longer than {} seconds - it will be forcefully interrupted. Please provide your test files with a timeout to prevent infinite loops.", script, timeout);
-            // destroy children
-            process.descendants()
-                    .forEach(ProcessHandle::destroyForcibly);
-            // kill the process itself
-            process.destroyForcibly().waitFor();
-            return EXIT_TIMEOUT;
+            if (!completed) {
+                logger.warn("Execution of test {} took longer than {} milliseconds - it will be forcefully interrupted. Please provide your test files with a timeout to prevent infinite loops.", script, timeout);
+                kill(process).waitFor();
+                return EXIT_TIMEOUT;
+            }
+        } catch (InterruptedException e) {
+            // the run was cancelled (e.g. because a parallel candidate
+            // already succeeded) - do not leave the process running
+            kill(process);
+            throw e;
         }
 
-        return process.exitValue();
+        var exitCode = process.exitValue();
+
+        if (exitCode == EXIT_SUCCESS)
+            timeouts.success(test, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+
+        return exitCode;
+    }
+
+    /**
+     * Forcefully terminates the given process and all its children.
+     *
+     * @param process The process to terminate
+     * @return the terminated process
+     */
+    private Process kill(Process process) {
+        // destroy children
+        process.descendants()
+                .forEach(ProcessHandle::destroyForcibly);
+        // kill the process itself
+        return process.destroyForcibly();
     }
 
     /**
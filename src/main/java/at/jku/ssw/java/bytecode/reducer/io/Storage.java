@@ -0,0 +1,449 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Location where (temporary) files are written to.
+ * Either a directory on disk or a RAM-backed directory
+ * (see {@link #SHARED_MEMORY}) that is limited to a given size.
+ * All file operations are counted in order to report the I/O costs.
+ */
+public class Storage {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The RAM-backed file system that is used for in-memory storage.
+     */
+    public static final Path SHARED_MEMORY = Paths.get("/dev/shm");
+
+    /**
+     * Indicates that the size of the storage is not limited.
+     */
+    public static final long UNLIMITED = -1;
+
+    /**
+     * The name that is used in the reports.
+     */
+    private final String name;
+
+    /**
+     * The root directory of this storage.
+     */
+    private final Path root;
+
+    /**
+     * The maximum number of bytes that may be stored
+     * (or {@link #UNLIMITED}).
+     */
+    private final long limit;
+
+    /**
+     * The number of bytes that are currently stored.
+     */
+    private final AtomicLong usage = new AtomicLong();
+
+    private final LongAdder filesWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder dirsCreated  = new LongAdder();
+    private final LongAdder dirsDeleted  = new LongAdder();
+    private final LongAdder ioNanos      = new LongAdder();
+
+    private Storage(String name, Path root, long limit) {
+        this.name = name;
+        this.root = root;
+        this.limit = limit;
+    }
+
+    /**
+     * Creates a storage that writes to the given directory on disk.
+     *
+     * @param name The name of the storage
+     * @param root The root directory
+     * @return a new storage without size limit
+     */
+    public static Storage disk(String name, Path root) {
+        return new Storage(name, root, UNLIMITED);
+    }
+
+    /**
+     * Creates a storage that keeps its files in memory.
+     * The given directory is placed in the {@link #SHARED_MEMORY} instead.
+     * If the shared memory is not available, the directory is created
+     * on disk.
+     *
+     * @param name  The name of the storage
+     * @param root  The root directory (on disk)
+     * @param limit The maximum number of bytes to store
+     * @return a new (in-memory) storage
+     */
+    public static Storage memory(String name, Path root, long limit) {
+        if (!Files.isDirectory(SHARED_MEMORY) || !Files.isWritable(SHARED_MEMORY)) {
+            logger.warn("{} is not available - using {} instead", SHARED_MEMORY, root);
+            return disk(name, root);
+        }
+
+        var dir = SHARED_MEMORY.resolve(
+                "jreduce" + NamingStrategy.SEPARATOR + ProcessHandle.current().pid() + NamingStrategy.SEPARATOR + root.getFileName()
+        );
+
+        return new Storage(name, dir, limit);
+    }
+
+    /**
+     * Returns the root directory of this storage.
+     *
+     * @return the root directory
+     */
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * Writes the given bytes to the given file
+     * (which replaces its previous contents).
+     *
+     * @param file  The file to write
+     * @param bytes The contents of the file
+     * @throws IOException if the file cannot be written or the size limit
+     *                     of the storage would be exceeded
+     */
+    public void write(Path file, byte[] bytes) throws IOException {
+        var start = System.nanoTime();
+
+        try {
+            var delta = reserve(file, bytes.length, "Writing " + file);
+
+            try {
+                Files.write(file, bytes);
+            } catch (IOException e) {
+                usage.addAndGet(-delta);
+                throw e;
+            }
+
+            filesWritten.increment();
+            bytesWritten.add(bytes.length);
+        } finally {
+            ioNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Atomically replaces the given file by a file with the given contents.
+     * The contents are first written to a temporary file that is then
+     * renamed, so that the file is never incomplete.
+     *
+     * @param file  The file to replace
+     * @param bytes The new contents of the file
+     * @throws IOException if the file cannot be written or the size limit
+     *                     of the storage would be exceeded
+     */
+    public void replace(Path file, byte[] bytes) throws IOException {
+        var temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        write(temp, bytes);
+
+        var start = System.nanoTime();
+
+        try {
+            if (limit != UNLIMITED && Files.exists(file))
+                usage.addAndGet(-Files.size(file));
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            ioNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Opens the given JAR file for updates
+     * (see {@link Archive}).
+     * Archives are not counted towards the size limit of the storage.
+     *
+     * @param archive The JAR file to update
+     * @return the opened archive
+     * @throws IOException if the archive cannot be opened
+     */
+    public Archive open(Path archive) throws IOException {
+        var start = System.nanoTime();
+
+        try {
+            return new Archive(archive);
+        } finally {
+            ioNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Copies the given file to the given target file
+     * (which replaces its previous contents).
+     *
+     * @param source The file to copy
+     * @param target The target file
+     * @throws IOException if the file cannot be copied or the size limit
+     *                     of the storage would be exceeded
+     */
+    public void copy(Path source, Path target) throws IOException {
+        var start = System.nanoTime();
+
+        try {
+            var size  = Files.size(source);
+            var delta = reserve(target, size, "Copying " + source);
+
+            try {
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                usage.addAndGet(-delta);
+                throw e;
+            }
+
+            filesWritten.increment();
+            bytesWritten.add(size);
+        } finally {
+            ioNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Places the given file at the given target, where a hard link is
+     * created if possible and the file is copied otherwise.
+     * Links are counted towards the size limit just like copies,
+     * as they are also subtracted when they are deleted.
+     *
+     * @param source The file to link
+     * @param target The target file (which is replaced)
+     * @throws IOException if the file can neither be linked nor copied
+     *                     or the size limit of the storage would be
+     *                     exceeded
+     */
+    public void link(Path source, Path target) throws IOException {
+        var start = System.nanoTime();
+
+        try {
+            var size  = Files.size(source);
+            var delta = reserve(target, size, "Linking " + source);
+
+            try {
+                Files.deleteIfExists(target);
+                Files.createLink(target, source);
+            } catch (IOException | UnsupportedOperationException e) {
+                try {
+                    Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException ex) {
+                    usage.addAndGet(-delta);
+                    throw ex;
+                }
+
+                filesWritten.increment();
+                bytesWritten.add(size);
+            }
+        } finally {
+            ioNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reserves the space for replacing the given file by a file of
+     * the given size.
+     *
+     * @param file   The file that is replaced
+     * @param size   The size of the new file
+     * @param action The description of the operation (for errors)
+     * @return the number of bytes that were reserved
+     * (which may be negative)
+     * @throws IOException if the size limit of the storage would be
+     *                     exceeded
+     */
+    private long reserve(Path file, long size, String action) throws IOException {
+        if (limit == UNLIMITED)
+            return 0;
+
+        var delta = size - (Files.exists(file) ? Files.size(file) : 0);
+
+        if (usage.addAndGet(delta) > limit) {
+            usage.addAndGet(-delta);
+            throw new IOException(action + " exceeds the size limit of " + limit + " bytes of " + root);
+        }
+
+        return delta;
+    }
+
+    /**
+     * Creates the given directory (and its parents).
+     *
+     * @param dir The directory to create
+     * @return the directory
+     * @throws IOException if the directory cannot be created
+     */
+    public Path createDirectories(Path dir) throws IOException {
+        var start = System.nanoTime();
+
+        try {
+            var path = Files.createDirectories(dir);
+            dirsCreated.increment();
+            return path;
+        } finally {
+            ioNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Deletes the given directory and its contents
+     * (or the given file).
+     *
+     * @param dir The directory to delete
+     * @return the deleted directory
+     * @throws IOException if the directory cannot be deleted
+     */
+    public Path delete(Path dir) throws IOException {
+        var start = System.nanoTime();
+
+        try {
+            if (limit != UNLIMITED)
+                usage.addAndGet(-size(dir));
+
+            var path = FileUtils.delete(dir);
+            dirsDeleted.increment();
+            return path;
+        } finally {
+            ioNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Logs the I/O metrics of this storage.
+     */
+    public void report() {
+        logger.info(
+                "Storage '{}' ({}): {} files ({} bytes) written, {} directories created, {} deleted, {} ms of I/O",
+                name,
+                root,
+                filesWritten.sum(),
+                bytesWritten.sum(),
+                dirsCreated.sum(),
+                dirsDeleted.sum(),
+                ioNanos.sum() / 1_000_000
+        );
+    }
+
+    /**
+     * Computes the total size of the regular files in the given directory.
+     */
+    private static long size(Path dir) throws IOException {
+        try (var files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .mapToLong(p -> p.toFile().length())
+                    .sum();
+        }
+    }
+
+    /**
+     * A JAR file whose entries are updated incrementally.
+     * The archive is opened as zip file system on a copy of the JAR file
+     * once, afterwards every update only writes the given entries.
+     * The copy replaces the JAR file at once when the archive is closed,
+     * so that the JAR file is never incomplete and is only rewritten once.
+     */
+    public final class Archive implements AutoCloseable {
+
+        /**
+         * The JAR file.
+         */
+        private final Path file;
+
+        /**
+         * The copy of the JAR file that receives the updates.
+         */
+        private final Path temp;
+
+        /**
+         * The zip file system of the copy.
+         */
+        private final FileSystem zip;
+
+        private Archive(Path file) throws IOException {
+            this.file = file;
+            this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+            Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+
+            try {
+                this.zip = FileSystems.newFileSystem(temp, (ClassLoader) null);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+
+        /**
+         * Replaces the given entries of the archive.
+         *
+         * @param entries The contents of the entries mapped by their path
+         *                within the archive (where entries without contents
+         *                are removed)
+         * @throws IOException if the entries cannot be written
+         *                     or the archive is already closed
+         */
+        public synchronized void update(Map<String, byte[]> entries) throws IOException {
+            if (!zip.isOpen())
+                throw new IOException("The archive " + file + " is already closed");
+
+            var start = System.nanoTime();
+
+            try {
+                for (var entry : entries.entrySet()) {
+                    var path = zip.getPath(entry.getKey());
+
+                    if (entry.getValue() == null) {
+                        Files.deleteIfExists(path);
+                        continue;
+                    }
+
+                    if (path.getParent() != null)
+                        Files.createDirectories(path.getParent());
+
+                    Files.write(path, entry.getValue());
+
+                    filesWritten.increment();
+                    bytesWritten.add(entry.getValue().length);
+                }
+            } finally {
+                ioNanos.add(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Writes the updated archive and replaces the JAR file by it.
+         *
+         * @throws IOException if the archive cannot be written
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            if (!zip.isOpen())
+                return;
+
+            var start = System.nanoTime();
+
+            try {
+                zip.close();
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+                ioNanos.add(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -33,16 +33,24 @@ public class TempDir {
      */
     protected final NamingStrategy strat;
 
+    /**
+     * The storage that creates and deletes the directories
+     * (or {@code null} to access the file system directly).
+     */
+    protected final Storage storage;
+
     /**
      * Package-protected constructor only to be
      * used by the factory method.
      *
      * @param strategy The Naming strategy to use for the directory generation
      * @param path     The path for the temporary directory
+     * @param storage  The storage that manages the directory
      */
-    protected TempDir(NamingStrategy strategy, Path path) {
+    protected TempDir(NamingStrategy strategy, Path path, Storage storage) {
         this.path = path;
         this.strat = strategy;
+        this.storage = storage;
     }
 
     /**
@@ -58,6 +66,21 @@ public class TempDir {
         return at(NamingStrategy.Static(path.getFileName().toString()), path.getParent());
     }
 
+    /**
+     * Create a temp directory at the root of the given storage.
+     *
+     * @param storage The storage that manages the directory
+     * @return a new temporary directory at the root of the storage
+     * @throws IOException if the path denotes a file
+     *                     or a not writable directory
+     */
+    public static TempDir at(Storage storage)
+            throws IOException {
+        var root = storage.root();
+
+        return at(NamingStrategy.Static(root.getFileName().toString()), root.getParent(), storage);
+    }
+
     /**
      * Create a temp directory at the given location.
      *
@@ -69,6 +92,23 @@ public class TempDir {
      */
     public static TempDir at(NamingStrategy strategy, Path path)
             throws IOException {
+        return at(strategy, path, null);
+    }
+
+    /**
+     * Create a temp directory at the given location that is managed
+     * by the given storage.
+     *
+     * @param strategy The naming strategy to apply
+     * @param path     The directory location
+     * @param storage  The storage that manages the directory
+     *                 (or {@code null} to access the file system directly)
+     * @return a new temporary directory with its root at the given path
+     * @throws IOException if the path denotes a file or a
+     *                     not writable directory
+     */
+    public static TempDir at(NamingStrategy strategy, Path path, Storage storage)
+            throws IOException {
 
         if (strategy == null)
             throw new NullPointerException();
@@ -79,7 +119,7 @@ public class TempDir {
         if (Files.isDirectory(path) && !Files.isWritable(path))
             throw new AccessDeniedException(path.toString());
 
-        return new TempDir(strategy, path);
+        return new TempDir(strategy, path, storage);
     }
 
     /**
@@ -111,10 +151,18 @@ public class TempDir {
                 .map(p -> {
                     try {
                         logger.trace("Creating temporary directory at {}", p);
-                        final Path path = Files.createDirectories(p);
+                        final Path path = storage == null
+                                ? Files.createDirectories(p)
+                                : storage.createDirectories(p);
                         task.accept(p);
                         logger.trace("Clearing temporary directory at {}", p);
-                        return keep ? path : FileUtils.delete(path);
+
+                        if (keep)
+                            return path;
+
+                        return storage == null
+                                ? FileUtils.delete(path)
+                                : storage.delete(path);
                     } catch (IOException e) {
                         logger.fatal(e);
                         return null;
@@ -0,0 +1,290 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Pattern;
+
+import static org.objectweb.asm.Opcodes.ASM7_EXPERIMENTAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+
+/**
+ * Entry point of the worker processes that run the interestingness tests
+ * in-process.
+ * The worker connects to the given port of the parent and reads the
+ * working directories of the tests from this connection (one per line),
+ * so that the tested code cannot interfere with the requests via the
+ * standard streams. The classes of each directory are loaded in a fresh
+ * {@link ClassLoader} and the {@code main} method of the given class is
+ * invoked. The exit code of the run is then reported to the parent.
+ * A run succeeds if the {@code main} method terminates normally (or
+ * with exit code {@code 0}) and the captured output matches the
+ * given pattern (if any).
+ * Calls of {@link System#exit(int)}, {@link Runtime#exit(int)} and
+ * {@link Runtime#halt(int)} in the loaded classes are redirected to
+ * {@link #exit(int)} when the classes are loaded, which ends the run
+ * instead of the worker.
+ */
+public final class TestWorker {
+
+    /**
+     * Exit code that indicates that the output did not match the pattern.
+     */
+    public static final int EXIT_MISMATCH = 2;
+
+    /**
+     * Exit code that indicates that the main method threw an exception.
+     */
+    public static final int EXIT_ERROR = 1;
+
+    private TestWorker() {
+    }
+
+    /**
+     * Runs the worker loop until the parent closes the connection.
+     *
+     * @param args The port of the parent, the fully qualified name of the
+     *             main class and optionally the pattern that the output
+     *             has to contain
+     * @throws IOException if the communication with the parent fails
+     */
+    public static void main(String[] args) throws IOException {
+        final int     port      = Integer.parseInt(args[0]);
+        final String  mainClass = args[1];
+        final Pattern pattern   = args.length > 2
+                ? Pattern.compile(args[2], Pattern.MULTILINE)
+                : null;
+
+        // the tested code must not read the requests
+        System.setIn(InputStream.nullInputStream());
+
+        try (var socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final var in  = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            final var out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+            String dir;
+            while ((dir = in.readLine()) != null) {
+                out.println(run(mainClass, pattern, dir));
+                out.flush();
+            }
+        }
+
+        // threads of the tested code may still be running
+        Runtime.getRuntime().halt(0);
+    }
+
+    /**
+     * Replaces calls of {@link System#exit(int)} in the tested code.
+     *
+     * @param status The exit status
+     */
+    public static void exit(int status) {
+        throw new ExitException(status);
+    }
+
+    /**
+     * Replaces calls of {@link Runtime#exit(int)} and
+     * {@link Runtime#halt(int)} in the tested code.
+     *
+     * @param runtime The runtime (which is ignored)
+     * @param status  The exit status
+     */
+    public static void exit(Runtime runtime, int status) {
+        throw new ExitException(status);
+    }
+
+    /**
+     * Runs the main method of the given class that is located in the
+     * given directory.
+     *
+     * @param mainClass The fully qualified name of the main class
+     * @param pattern   The pattern that the output has to contain
+     *                  or {@code null} if the output is irrelevant
+     * @param dir       The directory that contains the class files
+     * @return the exit code of the run
+     */
+    private static int run(String mainClass, Pattern pattern, String dir) {
+        final var buffer = new ByteArrayOutputStream();
+        final var output = new PrintStream(buffer, true);
+
+        System.setOut(output);
+        System.setErr(output);
+
+        int exitCode;
+        try {
+            var loader = new WorkspaceClassLoader(Paths.get(dir));
+
+            Thread.currentThread().setContextClassLoader(loader);
+
+            Class.forName(mainClass, true, loader)
+                    .getMethod("main", String[].class)
+                    .invoke(null, (Object) new String[0]);
+
+            exitCode = ScriptRunner.EXIT_SUCCESS;
+        } catch (InvocationTargetException e) {
+            exitCode = exitCode(e.getCause(), output);
+        } catch (Throwable t) {
+            exitCode = exitCode(t, output);
+        } finally {
+            // output of threads that are still running is discarded
+            var discard = new PrintStream(OutputStream.nullOutputStream());
+            System.setOut(discard);
+            System.setErr(discard);
+        }
+
+        if (exitCode == ScriptRunner.EXIT_SUCCESS && pattern != null) {
+            var text = buffer.toString(StandardCharsets.UTF_8);
+
+            if (!pattern.matcher(text).find())
+                return EXIT_MISMATCH;
+        }
+
+        return exitCode;
+    }
+
+    /**
+     * Determines the exit code for the given throwable.
+     *
+     * @param t      The throwable that terminated the main method
+     * @param output The stream that captures the output
+     * @return the status of {@link System#exit(int)} calls
+     * or {@link #EXIT_ERROR}
+     */
+    private static int exitCode(Throwable t, PrintStream output) {
+        if (t instanceof ExitException)
+            return ((ExitException) t).status;
+
+        t.printStackTrace(output);
+        return EXIT_ERROR;
+    }
+
+    /**
+     * Loads the classes of a working directory and redirects the calls
+     * that would terminate the worker.
+     * All other classes are loaded by the platform class loader.
+     */
+    private static final class WorkspaceClassLoader extends ClassLoader {
+        private final Path dir;
+
+        WorkspaceClassLoader(Path dir) {
+            super(ClassLoader.getPlatformClassLoader());
+            this.dir = dir;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            // the loaded classes have to refer to the replacements
+            if (name.equals(TestWorker.class.getName()))
+                return TestWorker.class;
+
+            return super.loadClass(name, resolve);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            var file = dir.resolve(name.replace('.', '/') + ".class");
+
+            if (!Files.isRegularFile(file))
+                throw new ClassNotFoundException(name);
+
+            byte[] bytecode;
+            try {
+                bytecode = redirectExits(Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+
+        @Override
+        protected URL findResource(String name) {
+            var file = dir.resolve(name);
+
+            try {
+                return Files.exists(file) ? file.toUri().toURL() : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Redirects the calls that terminate the virtual machine
+     * to {@link #exit(int)} and {@link #exit(Runtime, int)}.
+     *
+     * The visitors use the experimental API level of ASM, as the
+     * nest attributes of nested classes (Java 11) are not supported
+     * by the previous one.
+     *
+     * @param bytecode The bytecode of a tested class
+     * @return the transformed bytecode (or the given bytecode if it
+     * cannot be parsed, in which case the definition fails anyway)
+     */
+    @SuppressWarnings("deprecation")
+    static byte[] redirectExits(byte[] bytecode) {
+        final var owner = Type.getInternalName(TestWorker.class);
+
+        try {
+            var cr = new ClassReader(bytecode);
+            var cw = new ClassWriter(cr, 0);
+
+            cr.accept(new ClassVisitor(ASM7_EXPERIMENTAL, cw) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    return new MethodVisitor(ASM7_EXPERIMENTAL, super.visitMethod(access, name, descriptor, signature, exceptions)) {
+                        @Override
+                        public void visitMethodInsn(int opcode, String o, String n, String d, boolean isInterface) {
+                            if (opcode == INVOKESTATIC && o.equals("java/lang/System") && n.equals("exit") && d.equals("(I)V"))
+                                super.visitMethodInsn(INVOKESTATIC, owner, "exit", "(I)V", false);
+                            else if (opcode == INVOKEVIRTUAL && o.equals("java/lang/Runtime") && (n.equals("exit") || n.equals("halt")) && d.equals("(I)V"))
+                                super.visitMethodInsn(INVOKESTATIC, owner, "exit", "(Ljava/lang/Runtime;I)V", false);
+                            else
+                                super.visitMethodInsn(opcode, o, n, d, isInterface);
+                        }
+                    };
+                }
+            }, 0);
+
+            return cw.toByteArray();
+        } catch (RuntimeException e) {
+            return bytecode;
+        }
+    }
+
+    /**
+     * Thrown instead of terminating the virtual machine.
+     * This is an error, as the tested code usually does not catch those.
+     */
+    private static final class ExitException extends Error {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ExitException(int status) {
+            super("System.exit(" + status + ")");
+            this.status = status;
+        }
+    }
+}
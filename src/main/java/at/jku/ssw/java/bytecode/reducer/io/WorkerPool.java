@@ -0,0 +1,307 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of persistent worker processes that run the main method of a given
+ * class in-process (see {@link TestWorker}).
+ * This avoids the startup costs of a new virtual machine for every test run.
+ * Workers are started lazily and replaced if they time out or crash.
+ */
+public class WorkerPool implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Exit code that indicates that the worker crashed.
+     */
+    public static final int EXIT_CRASH = -1;
+
+    /**
+     * Response that marks the end of the worker's output.
+     */
+    private static final String EOF = "";
+
+    /**
+     * The time in milliseconds that a new worker may take to connect.
+     */
+    private static final int CONNECT_TIMEOUT = 30_000;
+
+    /**
+     * The command to start a new worker
+     * (which is followed by the port and the arguments).
+     */
+    private final List<String> command;
+
+    /**
+     * The arguments of the worker.
+     */
+    private final List<String> arguments;
+
+    /**
+     * The timeouts of the test runs.
+     */
+    private final AdaptiveTimeout timeouts;
+
+    /**
+     * The name under which the run times are recorded.
+     */
+    private final String mainClass;
+
+    /**
+     * The workers that are currently not in use.
+     */
+    private final BlockingQueue<Worker> idle;
+
+    /**
+     * All workers of this pool.
+     */
+    private final List<Worker> workers;
+
+    /**
+     * Initialize a new pool.
+     *
+     * @param mainClass The fully qualified name of the main class
+     * @param pattern   The pattern that the output has to contain
+     *                  or {@code null} if the output is irrelevant
+     * @param timeout   The timeout in milliseconds for a single test run
+     * @param factor    The multiple of the 99th percentile of the successful
+     *                  run times after which runs are interrupted
+     *                  (or a value {@code <= 0} to only use the fixed timeout)
+     * @param size      The number of workers
+     */
+    public WorkerPool(String mainClass, String pattern, long timeout, double factor, int size) {
+        var java = Paths.get(System.getProperty("java.home"), "bin", "java");
+
+        var arguments = new ArrayList<>(List.of(mainClass));
+
+        if (pattern != null)
+            arguments.add(pattern);
+
+        this.command = List.of(
+                java.toString(),
+                "-cp",
+                classPath(),
+                TestWorker.class.getName()
+        );
+        this.arguments = List.copyOf(arguments);
+        this.timeouts = new AdaptiveTimeout(timeout, factor);
+        this.mainClass = mainClass;
+        this.workers = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++)
+            workers.add(new Worker());
+
+        this.idle = new LinkedBlockingQueue<>(workers);
+    }
+
+    /**
+     * Determines the class path of the workers, which only consists
+     * of the locations of the {@link TestWorker} and the ASM classes
+     * (as the class path of this process may be provided otherwise,
+     * e.g. by a test runner).
+     *
+     * @return the class path of the workers
+     */
+    private static String classPath() {
+        var paths = new LinkedHashSet<String>();
+
+        for (var clazz : List.of(TestWorker.class, ClassReader.class)) {
+            var source = clazz.getProtectionDomain().getCodeSource();
+
+            if (source == null)
+                return System.getProperty("java.class.path");
+
+            try {
+                paths.add(Paths.get(source.getLocation().toURI()).toString());
+            } catch (URISyntaxException e) {
+                logger.debug(e);
+                return System.getProperty("java.class.path");
+            }
+        }
+
+        return String.join(File.pathSeparator, paths);
+    }
+
+    /**
+     * Runs the main class with the class files that are located
+     * in the given directory and blocks until the result is available.
+     *
+     * @param dir The directory that contains the class files
+     * @return the exit code of the run
+     * @throws IOException          if the worker cannot be started
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for the result
+     */
+    public int execBlocking(Path dir) throws IOException, InterruptedException {
+        var worker = idle.take();
+
+        try {
+            return worker.exec(dir);
+        } finally {
+            idle.add(worker);
+        }
+    }
+
+    /**
+     * Terminates all workers.
+     */
+    @Override
+    public void close() {
+        workers.forEach(Worker::stop);
+    }
+
+    /**
+     * A single worker process.
+     */
+    private final class Worker {
+        private Process process;
+        private Socket connection;
+        private PrintWriter requests;
+        private BlockingQueue<String> responses;
+
+        /**
+         * Runs a single test and replaces the process if it does not
+         * respond in time.
+         *
+         * @param dir The directory that contains the class files
+         * @return the exit code of the run
+         */
+        int exec(Path dir) throws IOException, InterruptedException {
+            if (process == null || !process.isAlive())
+                start();
+
+            final var timeout = timeouts.get(mainClass);
+            final var start   = System.nanoTime();
+
+            requests.println(dir.toAbsolutePath());
+            requests.flush();
+
+            String response;
+            try {
+                response = responses.poll(timeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // the run was cancelled - the worker is still busy
+                stop();
+                throw e;
+            }
+
+            if (response == null) {
+                logger.warn("Execution of test in {} took longer than {} milliseconds - the worker will be replaced.", dir, timeout);
+                stop();
+                return ScriptRunner.EXIT_TIMEOUT;
+            } else if (response.equals(EOF)) {
+                logger.warn("Worker crashed while testing {} - the worker will be replaced.", dir);
+                stop();
+                return EXIT_CRASH;
+            }
+
+            var exitCode = Integer.parseInt(response);
+
+            if (exitCode == ScriptRunner.EXIT_SUCCESS)
+                timeouts.success(mainClass, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            return exitCode;
+        }
+
+        /**
+         * Starts a new worker process and the thread that
+         * collects its responses.
+         * The requests and responses are exchanged via a local connection,
+         * as the tested code may use the standard streams.
+         */
+        private void start() throws IOException {
+            try (var server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                server.setSoTimeout(CONNECT_TIMEOUT);
+
+                var args = new ArrayList<>(command);
+                args.add(String.valueOf(server.getLocalPort()));
+                args.addAll(arguments);
+
+                process = new ProcessBuilder()
+                        .command(args)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.DISCARD)
+                        .start();
+
+                // the tested code does not receive any input
+                process.getOutputStream().close();
+
+                try {
+                    connection = server.accept();
+                } catch (IOException e) {
+                    stop();
+                    throw e;
+                }
+            }
+
+            requests = new PrintWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
+
+            final var queue  = new LinkedBlockingQueue<String>();
+            final var output = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+
+            var reader = new Thread(() -> {
+                try (output) {
+                    String line;
+                    while ((line = output.readLine()) != null)
+                        queue.add(line);
+                } catch (IOException e) {
+                    logger.debug(e);
+                } finally {
+                    queue.add(EOF);
+                }
+            });
+            reader.setDaemon(true);
+            reader.start();
+
+            responses = queue;
+
+            logger.debug("Started worker {}", process.pid());
+        }
+
+        /**
+         * Forcefully terminates the worker process.
+         */
+        private void stop() {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (IOException e) {
+                    logger.debug(e);
+                }
+
+                connection = null;
+            }
+
+            if (process == null)
+                return;
+
+            process.descendants()
+                    .forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+            process = null;
+        }
+    }
+}
@@ -16,4 +16,15 @@ public interface CLIOptions {
     String TIMEOUT    = "t";
     String FILTER     = "f";
     String LIST       = "l";
+    String JOBS       = "j";
+    String CACHE      = "c";
+    String MAIN       = "m";
+    String PATTERN    = "p";
+    String RESUME     = "r";
+    String MEMORY     = "mem";
+    String INTERVAL   = "w";
+    String METRICS    = "M";
+    String ADAPTIVE   = "a";
+    String VERIFY     = "V";
+    String CHECKPOINT = "C";
 }
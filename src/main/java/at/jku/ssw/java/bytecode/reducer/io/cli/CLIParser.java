@@ -2,6 +2,7 @@ package at.jku.ssw.java.bytecode.reducer.io.cli;
 
 import at.jku.ssw.java.bytecode.reducer.context.ContextFactory;
 import at.jku.ssw.java.bytecode.reducer.context.ModuleRegistry;
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
 import org.apache.commons.cli.*;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -52,6 +53,10 @@ public class CLIParser {
         String out        = getArg(cmd, CLIOptions.OUT);
         String tmp        = getArg(cmd, CLIOptions.TEMP);
         String workingDir = getArg(cmd, CLIOptions.WORKING_D);
+        String cache      = getArg(cmd, CLIOptions.CACHE);
+        String mainClass  = getArg(cmd, CLIOptions.MAIN);
+        String pattern    = getArg(cmd, CLIOptions.PATTERN);
+        String metrics    = getArg(cmd, CLIOptions.METRICS);
 
         String[] filters = Optional
                 .ofNullable(cmd.getOptionValues(CLIOptions.FILTER))
@@ -69,25 +74,75 @@ public class CLIParser {
                 .map(Number::longValue)
                 .orElse(-1L);
 
-        boolean keepTemp = cmd.hasOption(CLIOptions.KEEP_TEMP);
+        int jobs = Optional
+                .ofNullable((Number) getArg(cmd, CLIOptions.JOBS))
+                .map(Number::intValue)
+                .orElse(-1);
+
+        if (jobs == 0 || jobs < -1)
+            throw new ParseException("The number of jobs must be positive");
+
+        long memoryLimit = Optional
+                .ofNullable((Number) getArg(cmd, CLIOptions.MEMORY))
+                .map(Number::longValue)
+                .orElse(-1L);
+
+        if (memoryLimit == 0 || memoryLimit < -1)
+            throw new ParseException("The memory limit must be positive");
+
+        long writeInterval = Optional
+                .ofNullable((Number) getArg(cmd, CLIOptions.INTERVAL))
+                .map(Number::longValue)
+                .orElse(-1L);
+
+        if (writeInterval == 0 || writeInterval < -1)
+            throw new ParseException("The write interval must be positive");
+
+        double timeoutFactor = Optional
+                .ofNullable((Number) getArg(cmd, CLIOptions.ADAPTIVE))
+                .map(Number::doubleValue)
+                .orElse(-1.0);
+
+        if (timeoutFactor <= 0 && timeoutFactor != -1)
+            throw new ParseException("The timeout factor must be positive");
+
+        boolean keepTemp   = cmd.hasOption(CLIOptions.KEEP_TEMP);
+        boolean resume     = cmd.hasOption(CLIOptions.RESUME);
+        boolean checkpoint = cmd.hasOption(CLIOptions.CHECKPOINT);
+        boolean verify     = cmd.hasOption(CLIOptions.VERIFY);
+
+        if (pattern != null && mainClass == null)
+            throw new ParseException("The output pattern requires a main class");
 
         // if no explicit tests are provided with the option,
         // the first file is assumed to be the test
-        if (iTests.length == 0 && fileArgs.length > 1) {
+        // (unless the tests are run in worker processes)
+        if (iTests.length == 0 && mainClass == null && fileArgs.length > 1) {
             iTests = new String[]{fileArgs[0]};
             classFiles = Arrays.copyOfRange(fileArgs, 1, fileArgs.length);
         }
 
-        return new ContextFactory(
-                classFiles,
-                iTests,
-                workingDir,
-                out,
-                tmp,
-                filters,
-                keepTemp,
-                timeout
-        );
+        return ContextFactory.builder()
+                .classFiles(classFiles)
+                .iTests(iTests)
+                .workingDir(workingDir)
+                .outDir(out)
+                .tempDir(tmp)
+                .filters(filters)
+                .keepTemp(keepTemp)
+                .timeout(timeout)
+                .jobs(jobs)
+                .resultCache(cache)
+                .mainClass(mainClass)
+                .pattern(pattern)
+                .memoryLimit(memoryLimit)
+                .resume(resume)
+                .checkpoint(checkpoint)
+                .writeInterval(writeInterval)
+                .metrics(metrics)
+                .timeoutFactor(timeoutFactor)
+                .verify(verify)
+                .build();
     }
 
     @SuppressWarnings("unchecked")
@@ -192,13 +247,73 @@ public class CLIParser {
         logging.setRequired(false);
 
         Option timeout = Option.builder(CLIOptions.TIMEOUT)
-                .desc("The timeout in seconds until runs of the test files are interrupted (to prevent infinite loops)")
+                .desc("The timeout in milliseconds until runs of the tests are interrupted (to prevent infinite loops)")
                 .longOpt("timeout")
                 .hasArg(true)
                 .required(false)
                 .type(Number.class)
                 .build();
 
+        Option jobs = Option.builder(CLIOptions.JOBS)
+                .desc("The number of candidates that are tested in parallel (each in its own temporary directory)")
+                .longOpt("jobs")
+                .hasArg(true)
+                .required(false)
+                .type(Number.class)
+                .build();
+
+        Option cache = Option.builder(CLIOptions.CACHE)
+                .desc("The file that stores the known test results (allows to skip tests of previous runs)")
+                .longOpt("cache")
+                .hasArg(true)
+                .required(false)
+                .build();
+
+        Option mainClass = Option.builder(CLIOptions.MAIN)
+                .desc("The main class that is run in persistent worker processes instead of the test files")
+                .longOpt("main")
+                .hasArg(true)
+                .required(false)
+                .build();
+
+        Option pattern = Option.builder(CLIOptions.PATTERN)
+                .desc("The pattern that the output of the main class has to contain")
+                .longOpt("pattern")
+                .hasArg(true)
+                .required(false)
+                .build();
+
+        Option memory = Option.builder(CLIOptions.MEMORY)
+                .desc("Keep the temporary directories in memory (" + Storage.SHARED_MEMORY + ") up to the given size in MB")
+                .longOpt("in-memory")
+                .hasArg(true)
+                .required(false)
+                .type(Number.class)
+                .build();
+
+        Option interval = Option.builder(CLIOptions.INTERVAL)
+                .desc("The interval in milliseconds in which intermediate results are written to the output directory")
+                .longOpt("interval")
+                .hasArg(true)
+                .required(false)
+                .type(Number.class)
+                .build();
+
+        Option metrics = Option.builder(CLIOptions.METRICS)
+                .desc("The directory where the metrics of the reduction are reported")
+                .longOpt("metrics")
+                .hasArg(true)
+                .required(false)
+                .build();
+
+        Option adaptive = Option.builder(CLIOptions.ADAPTIVE)
+                .desc("Interrupt test runs that exceed the given multiple of the 99th percentile of successful runs")
+                .longOpt("adaptive")
+                .hasArg(true)
+                .required(false)
+                .type(Number.class)
+                .build();
+
         Option filter = Option.builder(CLIOptions.FILTER)
                 .desc("Choose individual operations or modules to apply")
                 .longOpt("filter")
@@ -211,12 +326,23 @@ public class CLIParser {
                 .addOption(CLIOptions.VERSION, CLIOptions.VERSION, false, "Print program version")
                 .addOption(CLIOptions.KEEP_TEMP, "keep", false, "Keep temporary test directories and files")
                 .addOption(CLIOptions.LIST, "list-modules", false, "List all available transformation modules")
+                .addOption(CLIOptions.RESUME, "resume", false, "Continue the reduction from the checkpoint of a previous (interrupted) run")
+                .addOption(CLIOptions.CHECKPOINT, "checkpoint", false, "Record checkpoints that allow to resume an interrupted run")
+                .addOption(CLIOptions.VERIFY, "verify", false, "Reject unverifiable candidates without running the tests")
                 .addOption(workingDir)
                 .addOption(outDir)
                 .addOption(tempDir)
                 .addOptionGroup(logging)
                 .addOption(iTest)
                 .addOption(timeout)
+                .addOption(jobs)
+                .addOption(cache)
+                .addOption(mainClass)
+                .addOption(pattern)
+                .addOption(memory)
+                .addOption(interval)
+                .addOption(metrics)
+                .addOption(adaptive)
                 .addOption(filter);
 
         return options;
@@ -0,0 +1,154 @@
+package at.jku.ssw.java.bytecode.reducer.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with logarithmic buckets.
+ * Every power of two is divided into {@link #SUB_BUCKETS} buckets,
+ * which bounds the error of the reported percentiles to 25%
+ * while requiring a fixed amount of memory.
+ * Values may be recorded concurrently.
+ */
+final class Histogram {
+
+    /**
+     * The number of bits that select the bucket within a power of two.
+     */
+    private static final int SUB_BITS = 2;
+
+    /**
+     * The number of buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * The number of values in each bucket.
+     */
+    private final AtomicLongArray buckets;
+
+    /**
+     * The number of recorded values.
+     */
+    private final LongAdder count;
+
+    /**
+     * The sum of the recorded values.
+     */
+    private final LongAdder sum;
+
+    /**
+     * The maximum recorded value.
+     */
+    private final AtomicLong max;
+
+    Histogram() {
+        this.buckets = new AtomicLongArray(Long.SIZE * SUB_BUCKETS);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records the given value.
+     *
+     * @param value The value (negative values are treated as {@code 0})
+     */
+    void record(long value) {
+        value = Math.max(value, 0);
+
+        buckets.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds all values of the given histogram.
+     *
+     * @param other The other histogram
+     */
+    void add(Histogram other) {
+        for (int i = 0; i < buckets.length(); i++)
+            buckets.addAndGet(i, other.buckets.get(i));
+
+        count.add(other.count());
+        sum.add(other.sum());
+        max.accumulateAndGet(other.max(), Math::max);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long sum() {
+        return sum.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    long mean() {
+        long n = count();
+        return n == 0 ? 0 : sum() / n;
+    }
+
+    /**
+     * Determines the (upper bound of the) given percentile.
+     *
+     * @param p The percentile (between {@code 0} and {@code 1})
+     * @return the value below which the given share of values lies
+     */
+    long percentile(double p) {
+        long n = count();
+
+        if (n == 0)
+            return 0;
+
+        long target     = Math.max(1, (long) Math.ceil(p * n));
+        long cumulative = 0;
+
+        for (int i = 0; i < buckets.length(); i++) {
+            cumulative += buckets.get(i);
+
+            if (cumulative >= target)
+                return Math.min(upper(i), max());
+        }
+
+        return max();
+    }
+
+    /**
+     * Determines the bucket of the given value.
+     * Values below {@code 2 * SUB_BUCKETS} are mapped to their own buckets.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        int exp = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exp - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Determines the largest value of the given bucket.
+     */
+    static long upper(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int exp = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+
+        if (exp >= Long.SIZE - SUB_BITS)
+            return Long.MAX_VALUE;
+
+        long width = 1L << (exp - SUB_BITS);
+
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+}
@@ -0,0 +1,520 @@
+package at.jku.ssw.java.bytecode.reducer.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records counters and latency histograms of the reduction stages
+ * for each combination of module and class.
+ * The recording itself is always enabled, as it only updates a few
+ * counters. If a directory is {@link #open(Path) given}, every recorded
+ * value is additionally streamed as a JSON line ({@link #EVENTS})
+ * and a summary is reported as JSON and CSV ({@link #REPORT_JSON},
+ * {@link #REPORT_CSV}) when the metrics are {@link #close() closed}.
+ * The values are attributed to the current scope (see
+ * {@link #enter(String, String)}), which also covers tests that run
+ * on other threads, as only one class is reduced at a time.
+ */
+public final class Metrics implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The name of the file that receives the recorded values during the run.
+     */
+    public static final String EVENTS = "events.jsonl";
+
+    /**
+     * The name of the summary in JSON format.
+     */
+    public static final String REPORT_JSON = "report.json";
+
+    /**
+     * The name of the summary in CSV format.
+     */
+    public static final String REPORT_CSV = "report.csv";
+
+    /**
+     * The CSV header.
+     */
+    private static final String CSV_HEADER = "module,class,metric,count,total,mean,p50,p90,p99,max";
+
+    /**
+     * The scope name of values that are not attributed to any module
+     * or class.
+     */
+    private static final String NONE = "";
+
+    /**
+     * The counted quantities.
+     */
+    public enum Counter {
+        /**
+         * Candidates that were generated by a module.
+         */
+        GENERATED,
+
+        /**
+         * Candidates that were interesting.
+         */
+        ACCEPTED,
+
+        /**
+         * Candidates that were not interesting.
+         */
+        REJECTED,
+
+        /**
+         * Candidates that were generated speculatively, but discarded
+         * without a result, as an earlier candidate was accepted.
+         */
+        DISCARDED,
+
+        /**
+         * Candidates whose test result was already known.
+         */
+        CACHED,
+
+        /**
+         * Candidates that were rejected by the bytecode verification
+         * (without running the tests).
+         */
+        UNVERIFIABLE,
+
+        /**
+         * Bytes that were removed from the class files.
+         */
+        BYTES_REMOVED
+    }
+
+    /**
+     * The timed stages (in nanoseconds).
+     */
+    public enum Stage {
+        /**
+         * Generation of a candidate by a module.
+         */
+        GENERATE,
+
+        /**
+         * Verification of a candidate's bytecode.
+         */
+        VERIFY,
+
+        /**
+         * Writing a candidate to the working directory.
+         */
+        WORKSPACE,
+
+        /**
+         * Starting a test process.
+         */
+        SPAWN,
+
+        /**
+         * Waiting for a test process to finish.
+         */
+        EXECUTE,
+
+        /**
+         * Running the whole test suite on a candidate.
+         */
+        TEST
+    }
+
+    /**
+     * The metrics of the current run.
+     */
+    private static final Metrics GLOBAL = new Metrics();
+
+    /**
+     * The recorded values for each scope in the order of their creation.
+     */
+    private final Map<Scope, Entry> entries;
+
+    /**
+     * The scope that values are currently attributed to.
+     */
+    private volatile Scope scope;
+
+    /**
+     * The directory that receives the reports
+     * (or {@code null} if the values are only kept in memory).
+     */
+    private Path dir;
+
+    /**
+     * The writer that streams the recorded values
+     * (or {@code null} if the values are only kept in memory).
+     */
+    private Writer events;
+
+    Metrics() {
+        this.entries = new LinkedHashMap<>();
+        this.scope = new Scope(NONE, NONE);
+    }
+
+    /**
+     * Returns the metrics of the current run.
+     *
+     * @return the global metrics
+     */
+    public static Metrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Streams the recorded values to the given directory and
+     * writes the reports there once the metrics are closed.
+     *
+     * @param dir The directory that receives the reports
+     * @throws IOException if the directory or the event file cannot be created
+     */
+    public synchronized void open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+
+        this.dir = dir;
+        this.events = Files.newBufferedWriter(dir.resolve(EVENTS));
+    }
+
+    /**
+     * Attributes all subsequent values to the given module and class.
+     *
+     * @param module    The name of the module
+     * @param className The name of the class (or {@code null} if the
+     *                  values concern multiple classes)
+     */
+    public void enter(String module, String className) {
+        scope = new Scope(module, className == null ? NONE : className);
+    }
+
+    /**
+     * Ends the current scope and flushes the streamed values.
+     */
+    public void leave() {
+        scope = new Scope(NONE, NONE);
+
+        synchronized (this) {
+            if (events != null) {
+                try {
+                    events.flush();
+                } catch (IOException e) {
+                    logger.warn("Could not stream the metrics", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Increments the given counter by one.
+     *
+     * @param counter The counter
+     */
+    public void count(Counter counter) {
+        count(counter, 1);
+    }
+
+    /**
+     * Increments the given counter.
+     *
+     * @param counter The counter
+     * @param n       The value to add
+     */
+    public void count(Counter counter, long n) {
+        var current = scope;
+
+        entry(current).counters[counter.ordinal()].add(n);
+        stream(current, counter.name(), "count", n);
+    }
+
+    /**
+     * Sums the given counter over all modules and classes.
+     *
+     * @param counter The counter
+     * @return the total value of the counter
+     */
+    public synchronized long total(Counter counter) {
+        return entries.values().stream()
+                .mapToLong(e -> e.counters[counter.ordinal()].sum())
+                .sum();
+    }
+
+    /**
+     * Records the duration of the given stage.
+     *
+     * @param stage The stage
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(Stage stage, long nanos) {
+        var current = scope;
+
+        entry(current).stages[stage.ordinal()].record(nanos);
+        stream(current, stage.name(), "nanos", nanos);
+    }
+
+    /**
+     * Records the duration of the given stage that started at the given time.
+     *
+     * @param stage The stage
+     * @param start The start time (see {@link System#nanoTime()})
+     */
+    public void since(Stage stage, long start) {
+        record(stage, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes the reports (if a directory was given) and stops
+     * streaming the recorded values.
+     */
+    @Override
+    public synchronized void close() {
+        if (dir == null)
+            return;
+
+        try {
+            if (events != null)
+                events.close();
+
+            var rows = rows();
+
+            Files.write(dir.resolve(REPORT_JSON), List.of(json(rows)));
+            Files.write(dir.resolve(REPORT_CSV), csv(rows));
+
+            logger.info("Wrote metrics to {}", dir);
+        } catch (IOException e) {
+            logger.warn("Could not write the metrics report", e);
+        } finally {
+            dir = null;
+            events = null;
+        }
+    }
+
+    /**
+     * Retrieves the values of the given scope.
+     */
+    private synchronized Entry entry(Scope scope) {
+        return entries.computeIfAbsent(scope, s -> new Entry());
+    }
+
+    /**
+     * Streams the given value as a JSON line.
+     */
+    private synchronized void stream(Scope scope, String metric, String unit, long value) {
+        if (events == null)
+            return;
+
+        try {
+            events.write("{\"time\":" + System.currentTimeMillis() +
+                    ",\"module\":" + quote(scope.module) +
+                    ",\"class\":" + quote(scope.className) +
+                    ",\"metric\":" + quote(metric.toLowerCase(Locale.ROOT)) +
+                    ",\"" + unit + "\":" + value + "}");
+            events.write(System.lineSeparator());
+        } catch (IOException e) {
+            logger.warn("Could not stream the metrics", e);
+            events = null;
+        }
+    }
+
+    /**
+     * Collects the values of every scope and the total values.
+     */
+    private synchronized List<Row> rows() {
+        var total = new Entry();
+        var rows  = new ArrayList<Row>();
+
+        entries.forEach((s, e) -> {
+            rows.add(new Row(s, e));
+            total.add(e);
+        });
+
+        rows.add(new Row(new Scope("*", "*"), total));
+
+        return rows;
+    }
+
+    /**
+     * Formats the given rows as JSON.
+     */
+    private static String json(List<Row> rows) {
+        var sb = new StringBuilder("[");
+
+        for (int r = 0; r < rows.size(); r++) {
+            var row = rows.get(r);
+
+            sb.append(r == 0 ? "\n" : ",\n")
+                    .append("  {\"module\":").append(quote(row.scope.module))
+                    .append(",\"class\":").append(quote(row.scope.className))
+                    .append(",\"counters\":{");
+
+            for (var c : Counter.values())
+                sb.append(c.ordinal() == 0 ? "" : ",")
+                        .append(quote(c.name().toLowerCase(Locale.ROOT)))
+                        .append(':')
+                        .append(row.entry.counters[c.ordinal()].sum());
+
+            sb.append("},\"stages\":{");
+
+            for (var s : Stage.values()) {
+                var h = row.entry.stages[s.ordinal()];
+
+                sb.append(s.ordinal() == 0 ? "" : ",")
+                        .append(quote(s.name().toLowerCase(Locale.ROOT)))
+                        .append(":{\"count\":").append(h.count())
+                        .append(",\"total\":").append(h.sum())
+                        .append(",\"mean\":").append(h.mean())
+                        .append(",\"p50\":").append(h.percentile(0.5))
+                        .append(",\"p90\":").append(h.percentile(0.9))
+                        .append(",\"p99\":").append(h.percentile(0.99))
+                        .append(",\"max\":").append(h.max())
+                        .append('}');
+            }
+
+            sb.append("}}");
+        }
+
+        return sb.append("\n]").toString();
+    }
+
+    /**
+     * Formats the given rows as CSV lines.
+     * Counters only have a count, while the durations are given in
+     * nanoseconds.
+     */
+    private static List<String> csv(List<Row> rows) {
+        var lines = new ArrayList<String>();
+        lines.add(CSV_HEADER);
+
+        for (var row : rows) {
+            var prefix = csvQuote(row.scope.module) + "," + csvQuote(row.scope.className) + ",";
+
+            for (var c : Counter.values())
+                lines.add(prefix + c.name().toLowerCase(Locale.ROOT) + "," +
+                        row.entry.counters[c.ordinal()].sum() + ",,,,,,");
+
+            for (var s : Stage.values()) {
+                var h = row.entry.stages[s.ordinal()];
+
+                lines.add(prefix + s.name().toLowerCase(Locale.ROOT) + "," +
+                        h.count() + "," +
+                        h.sum() + "," +
+                        h.mean() + "," +
+                        h.percentile(0.5) + "," +
+                        h.percentile(0.9) + "," +
+                        h.percentile(0.99) + "," +
+                        h.max());
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Formats the given string as a JSON string.
+     */
+    private static String quote(String s) {
+        var sb = new StringBuilder("\"");
+
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\')
+                sb.append('\\').append(c);
+            else if (c < ' ')
+                sb.append(String.format("\\u%04x", (int) c));
+            else
+                sb.append(c);
+        }
+
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Formats the given string as a CSV field.
+     */
+    private static String csvQuote(String s) {
+        return s.contains(",") || s.contains("\"") || s.contains("\n") || s.contains("\r")
+                ? "\"" + s.replace("\"", "\"\"") + "\""
+                : s;
+    }
+
+    /**
+     * The module and class that values are attributed to.
+     */
+    private static final class Scope {
+        private final String module;
+        private final String className;
+
+        private Scope(String module, String className) {
+            this.module = module;
+            this.className = className;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Scope that = (Scope) o;
+
+            return module.equals(that.module) && className.equals(that.className);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * module.hashCode() + className.hashCode();
+        }
+    }
+
+    /**
+     * The recorded values of a single scope.
+     */
+    private static final class Entry {
+        private final LongAdder[] counters;
+        private final Histogram[] stages;
+
+        private Entry() {
+            this.counters = new LongAdder[Counter.values().length];
+            this.stages = new Histogram[Stage.values().length];
+
+            for (int i = 0; i < counters.length; i++)
+                counters[i] = new LongAdder();
+
+            for (int i = 0; i < stages.length; i++)
+                stages[i] = new Histogram();
+        }
+
+        /**
+         * Adds all values of the given entry.
+         */
+        private void add(Entry other) {
+            for (int i = 0; i < counters.length; i++)
+                counters[i].add(other.counters[i].sum());
+
+            for (int i = 0; i < stages.length; i++)
+                stages[i].add(other.stages[i]);
+        }
+    }
+
+    /**
+     * A single row of the report.
+     */
+    private static final class Row {
+        private final Scope scope;
+        private final Entry entry;
+
+        private Row(Scope scope, Entry entry) {
+            this.scope = scope;
+            this.entry = entry;
+        }
+    }
+}
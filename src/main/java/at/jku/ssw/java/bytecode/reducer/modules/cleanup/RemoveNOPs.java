@@ -4,6 +4,7 @@ import at.jku.ssw.java.bytecode.reducer.annot.Sound;
 import at.jku.ssw.java.bytecode.reducer.runtypes.ForcibleReducer;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
+import at.jku.ssw.java.bytecode.reducer.visitors.CallSiteIndex;
 import at.jku.ssw.java.bytecode.reducer.visitors.IndexedVisitor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,20 +31,22 @@ public class RemoveNOPs implements ForcibleReducer<CodePosition> {
     public State.Experimental<CodePosition> apply(State.Stable<CodePosition> stable) {
         byte[] bytecode = stable.bytecode();
 
-        ClassWriter cw = new ClassWriter(0);
         ClassReader cr = new ClassReader(bytecode);
 
+        // first pass: locate the first NOP that was not attempted yet
+        // without writing anything
         AtomicReference<CodePosition> candidate = new AtomicReference<>();
+        AtomicReference<String>       target    = new AtomicReference<>();
 
-        ClassVisitor cv = new ClassVisitor(ASM6, cw) {
+        cr.accept(new ClassVisitor(ASM6) {
             @Override
             public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
-                var visitor = super.visitMethod(access, name, descriptor, signature, exceptions);
-
-                if (visitor == null)
+                // skip the remaining methods once a candidate is found
+                if (candidate.get() != null)
                     return null;
 
-                return new IndexedVisitor(ASM6, visitor, name) {
+                // the instructions are only counted, but not written
+                return new IndexedVisitor(ASM6, new MethodVisitor(ASM6) {}, name) {
                     @Override
                     protected void visitInsn() {
                     }
@@ -52,33 +55,67 @@ public class RemoveNOPs implements ForcibleReducer<CodePosition> {
                     public void visitInsn(int opcode) {
                         var cp = new CodePosition(name, index());
 
-                        if (opcode != NOP ||
-                                candidate.get() != null ||
-                                stable.isCached(cp))
-                            // if it is not a NOP,
-                            // or if there already was one found
-                            // or if the current position is already cached,
-                            // include the instruction
-                            super.visitInsn(opcode);
-                        else {
-                            // otherwise ignore the NOP
+                        if (opcode == NOP &&
+                                candidate.get() == null &&
+                                stable.isNotCached(cp)) {
                             candidate.set(cp);
-                            next();
+                            target.set(CallSiteIndex.member(name, descriptor));
                         }
+
+                        next();
                     }
                 };
             }
-        };
-
-        cr.accept(cv, 0);
+        }, 0);
 
         return Optional.ofNullable(candidate.get())
                 .map(cp -> {
                     logger.debug("{}: Remove NOP", cp);
                     return cp;
                 })
-                .map(cp -> stable.toResult(cw.toByteArray(), cp))
+                .map(cp -> stable.toResult(remove(cr, target.get(), cp), cp))
                 .orElseGet(stable::toMinimalResult);
     }
 
+    /**
+     * Removes the NOP at the given position.
+     * Only the method that contains the NOP is transformed,
+     * while the code of all other methods is copied from the reader.
+     *
+     * @param cr     The reader of the class
+     * @param member The unique name of the method that contains the NOP
+     * @param cp     The position of the NOP
+     * @return the bytecode without the NOP
+     */
+    private static byte[] remove(ClassReader cr, String member, CodePosition cp) {
+        ClassWriter cw = new ClassWriter(cr, 0);
+
+        cr.accept(new ClassVisitor(ASM6, cw) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                var visitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+
+                if (visitor == null || !member.equals(CallSiteIndex.member(name, descriptor)))
+                    return visitor;
+
+                return new IndexedVisitor(ASM6, visitor, name) {
+                    @Override
+                    protected void visitInsn() {
+                    }
+
+                    @Override
+                    public void visitInsn(int opcode) {
+                        if (opcode != NOP || index() != cp.begin)
+                            super.visitInsn(opcode);
+                        else
+                            // ignore the NOP
+                            next();
+                    }
+                };
+            }
+        }, 0);
+
+        return cw.toByteArray();
+    }
+
 }
@@ -1,12 +1,12 @@
 package at.jku.ssw.java.bytecode.reducer.modules.fields;
 
 import at.jku.ssw.java.bytecode.reducer.annot.Sound;
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
 import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
-import at.jku.ssw.java.bytecode.reducer.runtypes.InstanceCachedMemberReducer;
 import at.jku.ssw.java.bytecode.reducer.runtypes.JavassistHelper;
+import at.jku.ssw.java.bytecode.reducer.runtypes.MemberReducer;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Expressions;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Instrumentation;
-import at.jku.ssw.java.bytecode.reducer.utils.javassist.Members;
 import javassist.CannotCompileException;
 import javassist.CtClass;
 import javassist.CtField;
@@ -14,18 +14,23 @@ import javassist.NotFoundException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 @Sound
 public class RemoveUnusedFields
-        implements InstanceCachedMemberReducer<CtClass, CtField>, JavassistHelper {
+        implements MemberReducer<CtClass, CtField, String>, JavassistHelper {
 
     private static final Logger logger = LogManager.getLogger();
 
     @Override
-    public Stream<CtField> getMembers(CtClass clazz) throws CannotCompileException {
-        return Instrumentation.unusedFields(clazz, f ->
-                Members.isInitializer(f.where()) && Members.isMemberOfClass(f.where(), clazz) && f.isWriter());
+    public Stream<CtField> getMembers(CtClass clazz) throws IOException {
+        // fields that are only assigned in initializers are also unused
+        var usages = ReferenceIndex.current().usages(clazz);
+
+        return Arrays.stream(clazz.getDeclaredFields())
+                .filter(usages::isUnused);
     }
 
     @Override
@@ -44,4 +49,10 @@ public class RemoveUnusedFields
         return clazz;
     }
 
+    @Override
+    public String keyFromMember(CtField ctField) {
+        // fields do not implement equality, therefore use the name
+        return ctField.getName();
+    }
+
 }
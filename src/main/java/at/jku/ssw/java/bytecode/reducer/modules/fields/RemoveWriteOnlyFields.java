@@ -1,6 +1,7 @@
 package at.jku.ssw.java.bytecode.reducer.modules.fields;
 
 import at.jku.ssw.java.bytecode.reducer.annot.Sound;
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
 import at.jku.ssw.java.bytecode.reducer.runtypes.JavassistHelper;
 import at.jku.ssw.java.bytecode.reducer.runtypes.MemberReducer;
 import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
@@ -8,10 +9,10 @@ import at.jku.ssw.java.bytecode.reducer.utils.javassist.Expressions;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Instrumentation;
 import javassist.CtClass;
 import javassist.CtField;
-import javassist.expr.FieldAccess;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 @Sound
@@ -22,7 +23,10 @@ public class RemoveWriteOnlyFields
 
     @Override
     public Stream<CtField> getMembers(CtClass clazz) throws Exception {
-        return Instrumentation.unusedFields(clazz, FieldAccess::isWriter);
+        var usages = ReferenceIndex.current().usages(clazz);
+
+        return Arrays.stream(clazz.getDeclaredFields())
+                .filter(usages::isWriteOnly);
     }
 
     @Override
@@ -13,8 +13,9 @@ import javassist.bytecode.analysis.Frame;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
+import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
 import java.util.stream.IntStream;
 
 import static javassist.bytecode.Opcode.NOP;
@@ -29,6 +30,12 @@ public class RemoveInstructionSequences implements InstructionReducer {
 
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The boundaries of the analyzed methods identified by their frames
+     * (see {@link at.jku.ssw.java.bytecode.reducer.utils.javassist.FrameCache}).
+     */
+    private final Map<Frame[], Boundaries> boundaries = new WeakHashMap<>();
+
     public CodePosition reduce(CtBehavior behav,
                                CodePosition codePosition,
                                CodeIterator it) {
@@ -59,61 +66,135 @@ public class RemoveInstructionSequences implements InstructionReducer {
 
         logger.trace(name);
 
-        // store the markings at which the stack size is zero
-        // and that are not NOPs
-        var beginIndices = new ArrayList<Integer>();
-
-        // the current number of items on the stack
-        // (initialize with -1 as first iteration
-        var stackSize = -1;
-
-        while (it.hasNext()) {
-            int index = it.next();
-
-            // get the opcode at the current index position
-            int code = it.byteAt(index);
-
-            // get the execution frame at this index position
-            var frame = frames[index];
-            // since the top index points to the position, the actual
-            // length is computed by adding 1
-            // if there is no frame, this means that the instruction is
-            // unreachable (dead code) and can usually be included in any
-            // reduction
-            stackSize = frame != null ? frame.getTopIndex() + 1 : 0;
-
-            logger.trace(String.format(
-                    "%6d: %-20s // [ %d ]",
-                    index,
-                    Mnemonic.OPCODE[code],
-                    stackSize
-            ));
-
-            if (stackSize == 0) {
-
-                if (code != NOP) {
-                    // if the stack size at this instruction is zero
-                    // and it is not a NOP, it is the start of a probably removable
-                    // range
-                    beginIndices.add(index);
-
-                    // if the stack is empty, this index may also be the end
-                    // of a potentially removable instruction sequence
-                    var opt = beginIndices.stream()
-                            .filter(i -> i < index)
-                            .map(i -> new CodePosition(name, i, index))
-                            .filter(stable::isNotCached)
-                            .findAny()
-                            .map(cp -> reduce(method, cp, it));
-
-                    if (opt.isPresent())
-                        return opt;
+        // the frames only change if the code changes,
+        // therefore the boundaries are only determined once per code
+        var index = boundaries.get(frames);
+        if (index == null) {
+            index = Boundaries.of(it, frames);
+            boundaries.put(frames, index);
+        }
+
+        return index.next(name, stable)
+                .map(cp -> reduce(method, cp, it));
+    }
+
+    /**
+     * Index of the instructions of a method at which the stack is empty,
+     * which are the possible boundaries of removable instruction sequences.
+     * The ranges between the boundaries are enumerated from the largest
+     * (number of spanned boundaries) to the smallest, so that large
+     * removable regions are tried in a single step. A cursor keeps track
+     * of the last attempted range, so that the enumeration resumes there
+     * as long as the attempt is still cached.
+     */
+    static final class Boundaries {
+
+        /**
+         * The indices of the instructions (that are not NOPs)
+         * at which the stack is empty in ascending order.
+         */
+        private final int[] indices;
+
+        /**
+         * The number of boundaries that the next range spans.
+         */
+        private int gap;
+
+        /**
+         * The position of the first boundary of the next range.
+         */
+        private int start;
+
+        /**
+         * The last attempted range (or {@code null} if no range
+         * was attempted).
+         */
+        private CodePosition last;
+
+        Boundaries(int[] indices) {
+            this.indices = indices;
+            reset();
+        }
+
+        /**
+         * Determines the boundaries of the given code.
+         *
+         * @param it     The code iterator
+         * @param frames The execution frames of the code
+         * @return the boundaries of the code
+         * @throws BadBytecode if the bytecode is invalid
+         */
+        static Boundaries of(CodeIterator it, Frame[] frames) throws BadBytecode {
+            var indices = IntStream.builder();
+
+            while (it.hasNext()) {
+                int index = it.next();
+
+                // get the opcode at the current index position
+                int code = it.byteAt(index);
+
+                // get the execution frame at this index position
+                var frame = frames[index];
+                // since the top index points to the position, the actual
+                // length is computed by adding 1
+                // if there is no frame, this means that the instruction is
+                // unreachable (dead code) and can usually be included in any
+                // reduction
+                var stackSize = frame != null ? frame.getTopIndex() + 1 : 0;
+
+                logger.trace(String.format(
+                        "%6d: %-20s // [ %d ]",
+                        index,
+                        Mnemonic.OPCODE[code],
+                        stackSize
+                ));
+
+                // if the stack size at this instruction is zero
+                // and it is not a NOP, it is the start (or end)
+                // of a probably removable range
+                if (stackSize == 0 && code != NOP)
+                    indices.add(index);
+            }
+
+            return new Boundaries(indices.build().toArray());
+        }
+
+        /**
+         * Determines the next range that was not attempted yet.
+         *
+         * @param member The name of the method
+         * @param stable The current reduction base (for accessing the cache)
+         * @return the next range or nothing if all ranges were attempted
+         */
+        Optional<CodePosition> next(String member, State.Stable<CodePosition> stable) {
+            // the attempts are no longer cached if a change
+            // (of another method) was accepted
+            if (last != null && stable.isNotCached(last))
+                reset();
+
+            for (; gap > 0; gap--, start = 0) {
+                for (; start + gap < indices.length; start++) {
+                    var cp = new CodePosition(member, indices[start], indices[start + gap]);
+
+                    if (stable.isNotCached(cp)) {
+                        start++;
+                        last = cp;
+                        return Optional.of(cp);
+                    }
                 }
             }
 
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        /**
+         * Restarts the enumeration with the largest range.
+         */
+        private void reset() {
+            gap = indices.length - 1;
+            start = 0;
+            last = null;
+        }
     }
 
 }
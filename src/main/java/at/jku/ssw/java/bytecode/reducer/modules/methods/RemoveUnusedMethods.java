@@ -1,15 +1,16 @@
 package at.jku.ssw.java.bytecode.reducer.modules.methods;
 
 import at.jku.ssw.java.bytecode.reducer.annot.Sound;
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
 import at.jku.ssw.java.bytecode.reducer.runtypes.JavassistHelper;
 import at.jku.ssw.java.bytecode.reducer.runtypes.InstanceCachedMemberReducer;
-import at.jku.ssw.java.bytecode.reducer.utils.javassist.Instrumentation;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Members;
 import javassist.CtClass;
 import javassist.CtMethod;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 @Sound
@@ -20,7 +21,11 @@ public class RemoveUnusedMethods
 
     @Override
     public Stream<CtMethod> getMembers(CtClass clazz) throws Exception {
-        return Instrumentation.unusedMethods(clazz, Members::isRecursion)
+        // recursive calls do not count as usages
+        var usages = ReferenceIndex.current().usages(clazz);
+
+        return Arrays.stream(clazz.getDeclaredMethods())
+                .filter(usages::isUnused)
                 .filter(Members::isNotMain);
     }
 
@@ -158,6 +158,7 @@ class MethodAdapter extends PatternMethodAdapter {
                 if (opcode == PUTFIELD && name.equalsIgnoreCase(fieldName)) {
                     // full sequence detected -> reset
                     state = INIT;
+                    changed();
                     return;
                 }
                 break;
@@ -94,6 +94,7 @@ class MethodAdapter extends PatternMethodAdapter {
 
         // pattern detected
         state = INIT;
+        changed();
     }
 
     /**
@@ -1,11 +1,17 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import at.jku.ssw.java.bytecode.reducer.visitors.CallSiteIndex;
+import at.jku.ssw.java.bytecode.reducer.visitors.ChangeLocator;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
 
+import java.util.Set;
 import java.util.stream.Stream;
 
+import static org.objectweb.asm.Opcodes.ASM6;
+
 public interface ASMReducer extends Reducer {//IterativeReducer<CodePosition> {
 
     /**
@@ -13,17 +19,66 @@ public interface ASMReducer extends Reducer {//IterativeReducer<CodePosition> {
      */
     @Override
     default byte[] apply(byte[] bytecode) {
-
-        // do not use "optimized" ClassWriter invocation (with reference
-        // to the ClassReader instance, since this is discouraged for
-        // non-additive transformations
-        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
         ClassReader cr = new ClassReader(bytecode);
 
-        visitors(cw).forEach(v -> cr.accept(v, 0));
+        if (!copyUnchanged()) {
+            // do not use "optimized" ClassWriter invocation (with reference
+            // to the ClassReader instance, since this is discouraged for
+            // non-additive transformations
+            ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+            visitors(cw).forEach(v -> cr.accept(v, 0));
+
+            return cw.toByteArray();
+        }
+
+        // first pass: the visitors report the methods that they change,
+        // where nothing is encoded or recorded
+        ChangeLocator locator = new ChangeLocator();
+
+        visitors(locator).forEach(v -> cr.accept(v, 0));
+
+        Set<String> changed = locator.changed();
+
+        if (changed.isEmpty())
+            return bytecode;
+
+        // second pass: only the changed methods are passed to the visitors,
+        // the code of all other methods is copied from the reader
+        ClassWriter cw = new ClassWriter(cr, ClassWriter.COMPUTE_MAXS);
+
+        visitors(cw).forEach(v -> cr.accept(new ClassVisitor(ASM6, v) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                if (changed.contains(CallSiteIndex.member(name, descriptor)))
+                    return super.visitMethod(access, name, descriptor, signature, exceptions);
+
+                // passing the writer's visitor directly to the reader
+                // enables the copy of the original method
+                return cw.visitMethod(access, name, descriptor, signature, exceptions);
+            }
+        }, 0));
 
         return cw.toByteArray();
     }
 
+    /**
+     * Determines whether the methods that are not changed by the visitors
+     * are copied from the original bytecode instead of being encoded again.
+     * The constant pool of the original class is retained in this case,
+     * which means that entries that are no longer referenced remain
+     * until the constant pool is shrunk.
+     * The visitors have to treat every method independently, as unchanged
+     * methods bypass them, and have to report every method that they
+     * change (see {@link at.jku.ssw.java.bytecode.reducer.visitors.PatternMethodAdapter#changed()}).
+     * If no method is changed, the original bytecode is returned.
+     *
+     * @return {@code true} if unchanged methods are copied;
+     * {@code false} if every method is encoded again
+     */
+    default boolean copyUnchanged() {
+        return true;
+    }
+
     Stream<ClassVisitor> visitors(ClassVisitor parent);
 }
@@ -0,0 +1,131 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.states.State;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CallSite;
+import at.jku.ssw.java.bytecode.reducer.visitors.CallSiteIndex;
+import org.objectweb.asm.*;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Represents a reduction that replaces individual method calls with
+ * the default value of the return type (if any).
+ * The call sites are indexed in a single pass over the class.
+ * Only the method that contains the replaced call is transformed,
+ * while all other methods are copied as they are.
+ */
+public interface CallSiteReducer extends ForcibleReducer<CallSite> {
+
+    /**
+     * Determines whether the calls of methods with the given descriptor
+     * are replaced.
+     *
+     * @param descriptor The descriptor of the called method
+     * @return {@code true} if the calls are candidates for replacement;
+     * {@code false} otherwise
+     */
+    boolean isCandidate(String descriptor);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default State.Experimental<CallSite> apply(State.Stable<CallSite> stable) {
+        var bytecode = stable.bytecode();
+
+        var candidate = CallSiteIndex.of(bytecode).stream()
+                .filter(s -> isCandidate(s.descriptor))
+                .filter(stable::isNotCached)
+                .findFirst();
+
+        // if no applicable call was found, the reduction is minimal
+        return candidate
+                .map(site -> stable.toResult(replace(bytecode, site), site))
+                .orElseGet(stable::toMinimalResult);
+    }
+
+    /**
+     * Replaces the given call site.
+     * The arguments (and the target instance) are popped from the stack
+     * and the default value of the return type is pushed instead,
+     * which never exceeds the previous stack size.
+     *
+     * @param bytecode The bytecode of the class
+     * @param site     The call site to replace
+     * @return the bytecode with the replaced call
+     */
+    static byte[] replace(byte[] bytecode, CallSite site) {
+        var cr = new ClassReader(bytecode);
+
+        // the writer copies the unchanged methods from the reader
+        var cw = new ClassWriter(cr, 0);
+
+        cr.accept(new ClassVisitor(ASM6, cw) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                var visitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+
+                if (visitor == null || !site.member.equals(CallSiteIndex.member(name, descriptor)))
+                    return visitor;
+
+                return new MethodVisitor(ASM6, visitor) {
+                    private int ordinal = 0;
+
+                    @Override
+                    public void visitMethodInsn(int opcode, String owner, String methodName, String methodDescriptor, boolean isInterface) {
+                        if (!owner.equals(site.owner) ||
+                                !methodName.equals(site.name) ||
+                                !methodDescriptor.equals(site.descriptor) ||
+                                ordinal++ != site.ordinal) {
+                            super.visitMethodInsn(opcode, owner, methodName, methodDescriptor, isInterface);
+                            return;
+                        }
+
+                        var arguments = Type.getArgumentTypes(methodDescriptor);
+
+                        for (int i = arguments.length - 1; i >= 0; i--)
+                            super.visitInsn(arguments[i].getSize() == 2 ? POP2 : POP);
+
+                        if (opcode != INVOKESTATIC)
+                            super.visitInsn(POP);
+
+                        pushDefault(this, Type.getReturnType(methodDescriptor));
+                    }
+                };
+            }
+        }, 0);
+
+        return cw.toByteArray();
+    }
+
+    /**
+     * Pushes the default value of the given type.
+     *
+     * @param visitor The visitor that emits the instruction
+     * @param type    The type of the value
+     */
+    static void pushDefault(MethodVisitor visitor, Type type) {
+        switch (type.getSort()) {
+            case Type.VOID:
+                return;
+            case Type.BOOLEAN:
+            case Type.CHAR:
+            case Type.BYTE:
+            case Type.SHORT:
+            case Type.INT:
+                visitor.visitInsn(ICONST_0);
+                return;
+            case Type.FLOAT:
+                visitor.visitInsn(FCONST_0);
+                return;
+            case Type.LONG:
+                visitor.visitInsn(LCONST_0);
+                return;
+            case Type.DOUBLE:
+                visitor.visitInsn(DCONST_0);
+                return;
+            default:
+                visitor.visitInsn(ACONST_NULL);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Counter;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Stage;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.states.State.Experimental;
 
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -27,17 +32,42 @@ public interface ForcibleReducer<A> extends IterativeReducer<A> {
      */
     @Override
     default byte[] apply(byte[] bytecode, Predicate<byte[]> test) throws Exception {
+        return apply(bytecode, test, __ -> {}, null, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The forced result is tested first, while only the iterative
+     * fallback is parallelized.
+     */
+    @Override
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         Consumer<byte[]> accept,
+                         ExecutorService executor,
+                         int parallelism) throws Exception {
+        final var metrics = Metrics.global();
+
+        var start = System.nanoTime();
         var res = force(bytecode);
+        metrics.since(Stage.GENERATE, start);
+        metrics.count(Counter.GENERATED);
+
         var reduced = res.bytecode();
 
         // try forced result (assumed to be minimal)
-        if (test.test(reduced))
+        if (test.test(reduced)) {
+            metrics.count(Counter.ACCEPTED);
+            accept.accept(reduced);
             return reduced;
+        }
+
+        metrics.count(Counter.REJECTED);
 
         var base = res.reject();
 
         // otherwise try iterative approach
-        return iterate(base, test);
+        return iterate(base, test, accept, executor, parallelism);
     }
 
     @Override
@@ -4,17 +4,19 @@ import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.states.State.Stable;
 import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
 import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.FrameCache;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
-import javassist.ClassPool;
 import javassist.CtBehavior;
 import javassist.NotFoundException;
 import javassist.bytecode.BadBytecode;
 import javassist.bytecode.CodeIterator;
-import javassist.bytecode.analysis.Analyzer;
 import javassist.bytecode.analysis.Frame;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist.bytecode;
 
@@ -43,10 +45,35 @@ public interface InstructionReducer extends IterativeReducer<CodePosition> {
                                       CodeIterator it,
                                       Frame[] frames) throws BadBytecode, NotFoundException;
 
+    /**
+     * {@inheritDoc}
+     * The execution frames are cached for the duration of the reduction.
+     */
+    @Override
+    default byte[] apply(byte[] bytecode, Predicate<byte[]> test) throws Exception {
+        return FrameCache.scoped(() -> IterativeReducer.super.apply(bytecode, test));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The execution frames are cached for the duration of the reduction.
+     */
+    @Override
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         Consumer<byte[]> accept,
+                         ExecutorService executor,
+                         int parallelism) throws Exception {
+        return FrameCache.scoped(() -> IterativeReducer.super.apply(bytecode, test, accept, executor, parallelism));
+    }
+
     @Override
     default State.Experimental<CodePosition> apply(Stable<CodePosition> stable) throws Exception {
         final var clazz = Javassist.loadClass(stable.bytecode());
 
+        // only methods whose code changed have to be analyzed again
+        final var frameCache = FrameCache.of(clazz, stable.bytecode());
+
         // iterate all "behaviours" (which includes methods and initializers)
         return Arrays.stream(clazz.getDeclaredBehaviors())
                 .flatMap(Catch.function(method -> {
@@ -54,11 +81,7 @@ public interface InstructionReducer extends IterativeReducer<CodePosition> {
 
                     // invoke code analyzer that allows lookup of stack contents
                     // and local variables
-                    var analyzer = new Analyzer();
-                    var frames = analyzer.analyze(
-                            clazz,
-                            method.getMethodInfo()
-                    );
+                    var frames = frameCache.analyze(method);
 
                     final var ca = m.getCodeAttribute();
                     final var it = ca.iterator();
@@ -81,7 +104,7 @@ public interface InstructionReducer extends IterativeReducer<CodePosition> {
 
                     try {
                         // rebuild the stack map
-                        m.rebuildStackMap(ClassPool.getDefault());
+                        m.rebuildStackMap(clazz.getClassPool());
                     } catch (BadBytecode | ArrayIndexOutOfBoundsException e) {
                         // if rebuild fails, this means that the bytecode is
                         // invalid and will fail the test anyway
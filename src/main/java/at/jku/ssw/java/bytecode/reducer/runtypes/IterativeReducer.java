@@ -1,9 +1,20 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Counter;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Stage;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.states.State.Stable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Represents a reduction of a class file that also maintains a certain
@@ -37,7 +48,19 @@ public interface IterativeReducer<A> extends Reducer {
      */
     @Override
     default byte[] apply(byte[] bytecode, Predicate<byte[]> test) throws Exception {
-        return iterate(Stable.of(bytecode), test);
+        return iterate(Stable.of(bytecode), test, __ -> {});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         Consumer<byte[]> accept,
+                         ExecutorService executor,
+                         int parallelism) throws Exception {
+        return iterate(Stable.of(bytecode), test, accept, executor, parallelism);
     }
 
     /**
@@ -55,24 +78,233 @@ public interface IterativeReducer<A> extends Reducer {
      * until a minimal result is produced.
      *
      * @param stable The base that contains the bytecode to reduce
-     * @param test The function that determines whether the resulting bytecode
-     *             is interesting
+     * @param test   The function that determines whether the resulting bytecode
+     *               is interesting
+     * @param accept The function that receives every accepted bytecode
      * @return the minimal bytecode
      * @throws Exception if the bytecode access fails
      */
-    default byte[] iterate(Stable<A> stable, Predicate<byte[]> test) throws Exception {
+    default byte[] iterate(Stable<A> stable,
+                           Predicate<byte[]> test,
+                           Consumer<byte[]> accept) throws Exception {
+        final var metrics = Metrics.global();
+
         State.Experimental<A> res;
         byte[] reduced;
 
         for (; ; ) {
+            var start = System.nanoTime();
             res = apply(stable);
+            metrics.since(Stage.GENERATE, start);
+
             reduced = res.bytecode();
 
             // assumption that a minimal result was already checked
             if (res.isMinimal())
                 return reduced;
 
-            stable = test.test(reduced) ? res.accept() : res.reject();
+            metrics.count(Counter.GENERATED);
+
+            if (test.test(reduced)) {
+                metrics.count(Counter.ACCEPTED);
+                accept.accept(reduced);
+                stable = res.accept();
+            } else {
+                metrics.count(Counter.REJECTED);
+                stable = res.reject();
+            }
+        }
+    }
+
+    /**
+     * Applies this transformation iteratively to the given base
+     * until a minimal result is produced.
+     * In each step, the next {@code parallelism} untried candidates
+     * are generated speculatively (by assuming that all previous ones
+     * are rejected) and tested concurrently.
+     * The first interesting candidate in the order of generation is
+     * accepted and the remaining tests are cancelled, which yields the
+     * same result as the sequential
+     * {@link #iterate(Stable, Predicate, Consumer)}.
+     * Only the accepted candidate is passed to the given consumer,
+     * even if later candidates of the same step are interesting as well.
+     *
+     * @param stable      The base that contains the bytecode to reduce
+     * @param test        The (thread-safe and side-effect free) function
+     *                    that determines whether the resulting bytecode
+     *                    is interesting
+     * @param accept      The function that receives every accepted bytecode
+     * @param executor    The executor that runs the tests
+     * @param parallelism The maximum number of candidates per step
+     * @return the minimal bytecode
+     * @throws Exception if the bytecode access fails
+     */
+    default byte[] iterate(Stable<A> stable,
+                           Predicate<byte[]> test,
+                           Consumer<byte[]> accept,
+                           ExecutorService executor,
+                           int parallelism) throws Exception {
+
+        if (parallelism <= 1)
+            return iterate(stable, test, accept);
+
+        final var metrics = Metrics.global();
+
+        for (; ; ) {
+            List<State.Experimental<A>> candidates = new ArrayList<>(parallelism);
+            State.Experimental<A> res = null;
+            Stable<A> base = stable;
+
+            // generate the next candidates by assuming that all
+            // previous candidates are rejected
+            while (candidates.size() < parallelism) {
+                var start = System.nanoTime();
+                res = apply(base);
+                metrics.since(Stage.GENERATE, start);
+
+                if (res.isMinimal())
+                    break;
+
+                metrics.count(Counter.GENERATED);
+                candidates.add(res);
+                base = res.reject();
+            }
+
+            // assumption that a minimal result was already checked
+            if (candidates.isEmpty())
+                return res.bytecode();
+
+            int winner = firstInteresting(
+                    candidates.stream()
+                            .map(State::bytecode)
+                            .collect(Collectors.toList()),
+                    test,
+                    executor
+            );
+
+            count(winner, candidates.size());
+
+            if (winner == -1) {
+                // the last base already holds every rejected attempt
+                stable = base;
+            } else {
+                // the winner is only committed once all tests are done
+                var accepted = candidates.get(winner);
+                accept.accept(accepted.bytecode());
+                stable = accepted.accept();
+            }
+        }
+    }
+
+    /**
+     * Counts the outcomes of a step that tested the given number of
+     * candidates at once (see {@link #firstInteresting}).
+     * The candidates before the winner are rejected, while the candidates
+     * after the winner are discarded without a result.
+     *
+     * @param winner     The index of the accepted candidate
+     *                   or {@code -1} if all candidates were rejected
+     * @param candidates The number of candidates
+     */
+    static void count(int winner, int candidates) {
+        final var metrics = Metrics.global();
+
+        if (winner == -1) {
+            metrics.count(Counter.REJECTED, candidates);
+            return;
+        }
+
+        metrics.count(Counter.REJECTED, winner);
+        metrics.count(Counter.ACCEPTED);
+        metrics.count(Counter.DISCARDED, candidates - winner - 1);
+    }
+
+    /**
+     * Tests the given candidates and determines the first interesting one
+     * (in the given order). If an executor is given, all candidates
+     * are tested concurrently and the remaining tests are cancelled as soon
+     * as the result is known.
+     * The method only returns once no test is running anymore, as the
+     * cancelled tests may otherwise still use the working directories
+     * of subsequent tests.
+     *
+     * @param candidates The candidate bytecodes
+     * @param test       The (thread-safe) function that determines whether
+     *                   a bytecode is interesting
+     * @param executor   The executor that runs the tests
+     *                   or {@code null} to test them sequentially
+     * @return the index of the first interesting candidate or {@code -1}
+     * if no candidate is interesting
+     * @throws Exception if a test fails unexpectedly
+     */
+    static int firstInteresting(List<byte[]> candidates,
+                                Predicate<byte[]> test,
+                                ExecutorService executor) throws Exception {
+
+        if (executor == null || candidates.size() == 1) {
+            for (int i = 0; i < candidates.size(); i++)
+                if (test.test(candidates.get(i)))
+                    return i;
+
+            return -1;
+        }
+
+        List<Future<Boolean>> results  = new ArrayList<>(candidates.size());
+        List<AtomicBoolean>   started  = new ArrayList<>(candidates.size());
+        List<CountDownLatch>  finished = new ArrayList<>(candidates.size());
+
+        for (var candidate : candidates) {
+            var isStarted  = new AtomicBoolean();
+            var isFinished = new CountDownLatch(1);
+
+            started.add(isStarted);
+            finished.add(isFinished);
+            results.add(executor.submit(() -> {
+                // the test was cancelled before it started
+                if (!isStarted.compareAndSet(false, true))
+                    return false;
+
+                try {
+                    return test.test(candidate);
+                } finally {
+                    isFinished.countDown();
+                }
+            }));
+        }
+
+        try {
+            // the first interesting result in canonical order wins
+            for (int i = 0; i < results.size(); i++)
+                if (results.get(i).get())
+                    return i;
+
+            return -1;
+        } finally {
+            var interrupted = false;
+
+            for (int i = 0; i < results.size(); i++) {
+                // tests that did not start yet are never run
+                if (started.get(i).compareAndSet(false, true)) {
+                    results.get(i).cancel(false);
+                    continue;
+                }
+
+                // cancel (and interrupt) the running test
+                // and wait until it released its resources
+                results.get(i).cancel(true);
+
+                while (true) {
+                    try {
+                        finished.get(i).await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+
+            if (interrupted)
+                Thread.currentThread().interrupt();
         }
     }
 }
@@ -1,10 +1,22 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Counter;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Stage;
+import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.states.State.Stable;
 import at.jku.ssw.java.bytecode.reducer.states.State.Experimental;
 import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -38,6 +50,146 @@ public interface MemberReducer<CLASS, MEMBER, CACHE>
                 .orElseGet(stable::toMinimalResult);
     }
 
+    /**
+     * {@inheritDoc}
+     * If the forced result is not interesting, the candidate members
+     * are processed in batches (delta debugging) before falling back
+     * to processing one member at a time.
+     */
+    @Override
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         Consumer<byte[]> accept,
+                         ExecutorService executor,
+                         int parallelism) throws Exception {
+        final var metrics = Metrics.global();
+
+        var start = System.nanoTime();
+        var res = force(bytecode);
+        metrics.since(Stage.GENERATE, start);
+        metrics.count(Counter.GENERATED);
+
+        var reduced = res.bytecode();
+
+        // try forced result (assumed to be minimal)
+        if (test.test(reduced)) {
+            metrics.count(Counter.ACCEPTED);
+            accept.accept(reduced);
+            return reduced;
+        }
+
+        metrics.count(Counter.REJECTED);
+
+        // otherwise try batches first and then the iterative approach
+        // on the remaining (and newly applicable) members
+        return iterate(ddmin(bytecode, test, accept, executor, parallelism), test, accept, executor, parallelism);
+    }
+
+    /**
+     * Processes the candidate members with the delta debugging strategy.
+     * First halves, then quarters (and so on) of the candidate members
+     * are processed at once until every remaining member fails on its own.
+     * This requires only a logarithmic number of tests if most
+     * candidates are applicable.
+     *
+     * @param bytecode    The bytecode to reduce
+     * @param test        The function that determines whether the resulting
+     *                    bytecode is interesting
+     * @param accept      The function that receives every accepted bytecode
+     * @param executor    The executor that runs the tests
+     *                    or {@code null} to test them sequentially
+     * @param parallelism The maximum number of candidates that are
+     *                    tested at once
+     * @return a new base that contains the reduced bytecode and the
+     * members that already failed individually
+     * @throws Exception if the bytecode access fails
+     */
+    default Stable<CACHE> ddmin(byte[] bytecode,
+                                Predicate<byte[]> test,
+                                Consumer<byte[]> accept,
+                                ExecutorService executor,
+                                int parallelism) throws Exception {
+
+        List<CACHE> keys = getMembers(classFrom(bytecode))
+                .map(this::keyFromMember)
+                .distinct()
+                .collect(Collectors.toList());
+
+        final var metrics = Metrics.global();
+        final int width   = Math.max(parallelism, 1);
+        int n = 2;
+
+        while (keys.size() >= 2) {
+            n = Math.min(n, keys.size());
+
+            var chunks = partition(keys, n);
+
+            List<CACHE> removed = null;
+
+            // test the complements of each chunk (in batches for
+            // parallel runs) until the first interesting one is found
+            for (int i = 0; i < chunks.size() && removed == null; i += width) {
+                var batch = chunks.subList(i, Math.min(i + width, chunks.size()));
+
+                final var base = bytecode;
+
+                var start = System.nanoTime();
+                var candidates = batch.stream()
+                        .map(Catch.function(c -> processAll(base, c)))
+                        .collect(Collectors.toList());
+                metrics.since(Stage.GENERATE, start);
+                metrics.count(Counter.GENERATED, candidates.size());
+
+                int winner = IterativeReducer.firstInteresting(candidates, test, executor);
+                IterativeReducer.count(winner, candidates.size());
+
+                if (winner != -1) {
+                    removed = batch.get(winner);
+                    bytecode = candidates.get(winner);
+                    accept.accept(bytecode);
+                }
+            }
+
+            if (removed != null) {
+                // continue with the remaining members
+                keys.removeAll(new HashSet<>(removed));
+                n = Math.max(n - 1, 2);
+            } else if (n == keys.size()) {
+                // every single member was already attempted
+                return State.of(bytecode, new HashSet<>(keys));
+            } else {
+                // increase the granularity
+                n = Math.min(n * 2, keys.size());
+            }
+        }
+
+        return State.of(bytecode);
+    }
+
+    /**
+     * Processes all members of the given bytecode that correspond to
+     * the given keys.
+     *
+     * @param bytecode The bytecode to reduce
+     * @param keys     The keys of the members to process
+     * @return the processed bytecode
+     * @throws Exception if the processing fails
+     */
+    default byte[] processAll(byte[] bytecode, Collection<CACHE> keys) throws Exception {
+        var selection = new HashSet<>(keys);
+        CLASS clazz = classFrom(bytecode);
+
+        // collect the members first, as processing may alter the class
+        List<MEMBER> members = getMembers(clazz)
+                .filter(m -> selection.contains(keyFromMember(m)))
+                .collect(Collectors.toList());
+
+        for (MEMBER m : members)
+            clazz = process(clazz, m);
+
+        return bytecodeFrom(clazz);
+    }
+
     /**
      * Retrieves potentially applicable members that should be attempted.
      *
@@ -59,9 +211,29 @@ public interface MemberReducer<CLASS, MEMBER, CACHE>
 
     /**
      * Retrieves the key from the given member instance.
+     * The key has to identify the member across multiple
+     * instances of the same class.
      *
      * @param member The member to generate the key for
      * @return the key that uniquely identifies this member object in the cache
      */
     CACHE keyFromMember(MEMBER member);
+
+    /**
+     * Splits the given list into {@code n} consecutive chunks
+     * of (almost) equal size.
+     *
+     * @param list The list to split
+     * @param n    The number of chunks
+     * @param <T>  The type of the elements
+     * @return a list of chunks
+     */
+    static <T> List<List<T>> partition(List<T> list, int n) {
+        var chunks = new ArrayList<List<T>>(n);
+
+        for (int i = 0; i < n; i++)
+            chunks.add(list.subList(i * list.size() / n, (i + 1) * list.size() / n));
+
+        return chunks;
+    }
 }
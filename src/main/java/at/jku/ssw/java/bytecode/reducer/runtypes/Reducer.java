@@ -1,9 +1,13 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
  * Represents a reduction of a class file.
+ * The given bytecode is shared with the caller and must not be modified;
+ * reductions always produce new byte arrays.
  */
 @FunctionalInterface
 public interface Reducer {
@@ -32,4 +36,38 @@ public interface Reducer {
 
         return test.test(result) ? result : bytecode;
     }
+
+    /**
+     * Reduces the given bytecode and tests its validity based on the given
+     * {@link Predicate}, where up to {@code parallelism} candidates
+     * may be tested concurrently on the given executor.
+     * The predicate therefore has to be thread-safe and free of side
+     * effects, as candidates may also pass the test if a preceding
+     * candidate is accepted. Only the accepted candidates are passed
+     * to the given consumer (in the order of acceptance).
+     * Reducers that only produce a single candidate simply
+     * ignore the executor.
+     *
+     * @param bytecode    The byte array that contains the bytecode
+     * @param test        Function that verifies whether the reduced bytecode is valid
+     * @param accept      Function that receives every accepted bytecode
+     * @param executor    The executor that runs the tests
+     * @param parallelism The maximum number of candidates to test at once
+     * @return the reduced bytecode or the unchanged original bytecode
+     * if the test failed
+     * @throws Exception if the bytecode cannot be parsed or is invalid
+     * @see Reducer#apply(byte[], Predicate)
+     */
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         Consumer<byte[]> accept,
+                         ExecutorService executor,
+                         int parallelism) throws Exception {
+        var result = apply(bytecode, test);
+
+        if (result != bytecode)
+            accept.accept(result);
+
+        return result;
+    }
 }
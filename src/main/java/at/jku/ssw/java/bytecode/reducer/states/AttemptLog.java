@@ -0,0 +1,123 @@
+package at.jku.ssw.java.bytecode.reducer.states;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persistent set of attempts that is shared between consecutive
+ * {@link State states}.
+ * Each log is a version of a single index that maps the attempts to the
+ * version in which they were added. Extending the latest version of an
+ * index adds the attempts in place, which takes constant time per
+ * attempt. Only extending an older version (i.e. branching off) copies
+ * the attempts of that version into a new index.
+ *
+ * @param <T> The type of the attempts
+ */
+final class AttemptLog<T> {
+
+    /**
+     * The empty log.
+     */
+    private static final AttemptLog<?> EMPTY = new AttemptLog<>(new Index<>(), 0);
+
+    /**
+     * The index that is shared by all versions of a log.
+     */
+    private final Index<T> index;
+
+    /**
+     * The version of this log.
+     */
+    private final int version;
+
+    private AttemptLog(Index<T> index, int version) {
+        this.index = index;
+        this.version = version;
+    }
+
+    /**
+     * Returns the empty log.
+     *
+     * @param <U> The type of the attempts
+     * @return an empty attempt log
+     */
+    @SuppressWarnings("unchecked")
+    static <U> AttemptLog<U> empty() {
+        return (AttemptLog<U>) EMPTY;
+    }
+
+    /**
+     * Creates a new log that contains the given attempts.
+     *
+     * @param attempts The attempts
+     * @param <U>      The type of the attempts
+     * @return a new attempt log
+     */
+    static <U> AttemptLog<U> of(Collection<U> attempts) {
+        return AttemptLog.<U>empty().with(attempts);
+    }
+
+    /**
+     * Determines whether the given attempt is part of this log.
+     *
+     * @param attempt The attempt to look up
+     * @return {@code true} if the attempt is contained in this log;
+     * {@code false} otherwise
+     */
+    boolean contains(T attempt) {
+        synchronized (index) {
+            Integer added = index.versions.get(attempt);
+
+            return added != null && added <= version;
+        }
+    }
+
+    /**
+     * Creates a new version of this log that additionally contains
+     * the given attempts. This log remains unchanged.
+     *
+     * @param attempts The new attempts
+     * @return the extended attempt log
+     */
+    AttemptLog<T> with(Collection<T> attempts) {
+        if (attempts.isEmpty())
+            return this;
+
+        synchronized (index) {
+            Index<T> target = index;
+
+            // branching off an older version requires a separate index
+            if (index.latest != version || this == EMPTY) {
+                target = new Index<>();
+                for (var entry : index.versions.entrySet())
+                    if (entry.getValue() <= version)
+                        target.versions.put(entry.getKey(), 0);
+            }
+
+            final int next = target.latest + 1;
+
+            synchronized (target) {
+                for (var attempt : attempts)
+                    target.versions.putIfAbsent(attempt, next);
+
+                target.latest = next;
+            }
+
+            return new AttemptLog<>(target, next);
+        }
+    }
+
+    /**
+     * Maps the attempts to the version in which they were added.
+     */
+    private static final class Index<T> {
+        private final Map<T, Integer> versions = new HashMap<>();
+
+        /**
+         * The most recent version of this index.
+         */
+        private int latest;
+    }
+}
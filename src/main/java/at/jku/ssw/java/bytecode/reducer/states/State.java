@@ -1,29 +1,33 @@
 package at.jku.ssw.java.bytecode.reducer.states;
 
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Represents either a reduction {@link Stable} or {@link Experimental} that
  * may be the argument or result of a
  * {@link at.jku.ssw.java.bytecode.reducer.runtypes.Reducer}.
  *
+ * <p>
+ * The bytecode is shared (and not copied) between consecutive states,
+ * the reducers and the {@link at.jku.ssw.java.bytecode.reducer.context.BytecodeCache}.
+ * Byte arrays that are passed to or retrieved from a state must
+ * therefore never be modified.
+ *
  * @param <T> The type of the attempt cache
  */
 public abstract class State<T> {
 
     /**
-     * The current bytecode.
+     * The current bytecode (which must not be modified).
      */
     protected final byte[] bytecode;
 
     /**
      * The attempts of previous reducers.
      */
-    protected final Set<T> attempts;
+    protected final AttemptLog<T> attempts;
 
     /**
      * Increasing identifier for consecutive runs.
@@ -34,40 +38,56 @@ public abstract class State<T> {
      * Instantiate a new object with the given bytecode and attempt cache.
      *
      * @param bytecode The bytecode that represents this base / result
-     * @param attempts The initial cache (empty if null)
+     * @param attempts The initial cache
      * @param run      The run number (default 0)
      */
-    protected State(byte[] bytecode, Set<T> attempts, int run) {
+    protected State(byte[] bytecode, AttemptLog<T> attempts, int run) {
         this.bytecode = bytecode;
         this.attempts = attempts;
         this.run = run;
     }
 
     /**
-     * @see State#State(byte[], Set, int)
+     * @see State#State(byte[], AttemptLog, int)
      */
     protected State(byte[] bytecode, int run) {
-        this(bytecode, Set.of(), run);
+        this(bytecode, AttemptLog.empty(), run);
     }
 
     /**
      * Instantiate a base from the given bytecode
      *
      * @param bytecode The bytecode describing the class
+     *                 (which is not copied)
      * @param <U>      The type of the cached attempts
      * @return a new reduction base
      */
     public static <U> Stable<U> of(byte[] bytecode) {
-        return new Stable<>(Arrays.copyOf(bytecode, bytecode.length));
+        return new Stable<>(bytecode);
+    }
+
+    /**
+     * Instantiate a base from the given bytecode that already contains
+     * the given attempts (e.g. known failures of a previous reduction).
+     *
+     * @param bytecode The bytecode describing the class
+     *                 (which is not copied)
+     * @param attempts The attempts that should not be tried again
+     * @param <U>      The type of the cached attempts
+     * @return a new reduction base
+     */
+    public static <U> Stable<U> of(byte[] bytecode, Set<U> attempts) {
+        return new Stable<>(bytecode, AttemptLog.of(attempts), 0);
     }
 
     /**
      * Returns the bytecode.
+     * The returned array is shared and must not be modified.
      *
      * @return a byte array describing a class
      */
     public final byte[] bytecode() {
-        return Arrays.copyOf(bytecode, bytecode.length);
+        return bytecode;
     }
 
     /**
@@ -98,21 +118,21 @@ public abstract class State<T> {
     public static class Stable<T> extends State<T> {
 
         /**
-         * @see State#State(byte[], Set, int)
+         * @see State#State(byte[], AttemptLog, int)
          */
-        protected Stable(byte[] bytecode, Set<T> cache, int run) {
+        protected Stable(byte[] bytecode, AttemptLog<T> cache, int run) {
             super(bytecode, cache, run);
         }
 
         /**
-         * @see State#State(byte[], Set, int)
+         * @see State#State(byte[], AttemptLog, int)
          */
         protected Stable(byte[] bytecode, int run) {
             super(bytecode, run);
         }
 
         /**
-         * @see State#State(byte[], Set, int)
+         * @see State#State(byte[], AttemptLog, int)
          */
         protected Stable(byte[] bytecode) {
             super(bytecode, 0);
@@ -130,10 +150,10 @@ public abstract class State<T> {
          */
         @SafeVarargs
         public final Experimental<T> toResult(byte[] bytecode, T... attempts) {
-            if (Arrays.equals(this.bytecode, bytecode))
-                return new Experimental.Failure<>(this, bytecode, Set.of(attempts));
+            if (this.bytecode == bytecode || Arrays.equals(this.bytecode, bytecode))
+                return new Experimental.Failure<>(this, bytecode, List.of(attempts));
             else
-                return new Experimental<>(this, bytecode, Set.of(attempts));
+                return new Experimental<>(this, bytecode, List.of(attempts));
         }
 
         /**
@@ -145,7 +165,7 @@ public abstract class State<T> {
          * @return a new result that stores the current and reduced bytecodes
          */
         public final Experimental<T> toMinimalResult() {
-            return new Experimental<>(this, bytecode, Set.of(), true);
+            return new Experimental<>(this, bytecode, List.of(), true);
         }
     }
 
@@ -159,7 +179,7 @@ public abstract class State<T> {
 
         private static class Failure<T> extends Experimental<T> {
 
-            protected Failure(Stable<T> stable, byte[] bytecode, Set<T> attempts) {
+            protected Failure(Stable<T> stable, byte[] bytecode, List<T> attempts) {
                 super(stable, bytecode, attempts);
             }
 
@@ -190,10 +210,8 @@ public abstract class State<T> {
          * @param attempts The additional updates
          * @param min      Indicates whether the result is minimal
          */
-        protected Experimental(Stable<T> stable, byte[] bytecode, Set<T> attempts, boolean min) {
-            super(bytecode, Stream.of(stable.attempts, attempts)
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.toSet()), stable.run + 1);
+        protected Experimental(Stable<T> stable, byte[] bytecode, List<T> attempts, boolean min) {
+            super(bytecode, stable.attempts.with(attempts), stable.run + 1);
             this.previous = stable.bytecode;
             this.minimal = min;
         }
@@ -206,7 +224,7 @@ public abstract class State<T> {
          * @param bytecode The resulting bytecode
          * @param attempts The additional updates
          */
-        protected Experimental(Stable<T> stable, byte[] bytecode, Set<T> attempts) {
+        protected Experimental(Stable<T> stable, byte[] bytecode, List<T> attempts) {
             this(stable, bytecode, attempts, false);
         }
 
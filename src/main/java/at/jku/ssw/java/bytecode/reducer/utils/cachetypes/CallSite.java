@@ -0,0 +1,96 @@
+package at.jku.ssw.java.bytecode.reducer.utils.cachetypes;
+
+/**
+ * Identifies a method call within a given member.
+ * Instead of the bytecode index, the call site is identified by the
+ * number of previous calls of the same method within the member,
+ * which does not depend on the bytecode layout of the member.
+ */
+public class CallSite {
+
+    /**
+     * The {@link #toString()} format.
+     */
+    private static final String FMT = "%s->%s#%d";
+
+    /**
+     * Unique name of the member that contains the call
+     * (name and descriptor).
+     */
+    public final String member;
+
+    /**
+     * The internal name of the class that declares the called method.
+     */
+    public final String owner;
+
+    /**
+     * The name of the called method.
+     */
+    public final String name;
+
+    /**
+     * The descriptor of the called method.
+     */
+    public final String descriptor;
+
+    /**
+     * The number of previous calls of the same method within the member.
+     */
+    public final int ordinal;
+
+    /**
+     * Creates a new call site.
+     *
+     * @param member     The name and descriptor of the containing member
+     * @param owner      The class that declares the called method
+     * @param name       The name of the called method
+     * @param descriptor The descriptor of the called method
+     * @param ordinal    The number of previous calls of the same method
+     */
+    public CallSite(String member, String owner, String name, String descriptor, int ordinal) {
+        assert member != null;
+        assert ordinal >= 0;
+
+        this.member = member;
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        CallSite that = (CallSite) o;
+
+        if (ordinal != that.ordinal) return false;
+        if (!member.equals(that.member)) return false;
+        if (!owner.equals(that.owner)) return false;
+        if (!name.equals(that.name)) return false;
+        return descriptor.equals(that.descriptor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = member.hashCode();
+        result = 31 * result + owner.hashCode();
+        result = 31 * result + name.hashCode();
+        result = 31 * result + descriptor.hashCode();
+        result = 31 * result + ordinal;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(FMT, member, owner + "." + name + descriptor, ordinal);
+    }
+}
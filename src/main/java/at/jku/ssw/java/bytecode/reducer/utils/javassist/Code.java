@@ -1,13 +1,11 @@
 package at.jku.ssw.java.bytecode.reducer.utils.javassist;
 
-import javassist.ClassPool;
 import javassist.CtBehavior;
 import javassist.CtClass;
 import javassist.NotFoundException;
 import javassist.bytecode.BadBytecode;
 import javassist.bytecode.CodeIterator;
 import javassist.bytecode.Descriptor;
-import javassist.bytecode.analysis.Analyzer;
 import javassist.bytecode.analysis.Type;
 
 import java.util.Set;
@@ -320,11 +318,7 @@ public final class Code {
     private static boolean stackTopIsDWORD(CtBehavior method, int index)
             throws BadBytecode {
 
-        var analyzer = new Analyzer();
-        var frames = analyzer.analyze(
-                method.getDeclaringClass(),
-                method.getMethodInfo()
-        );
+        var frames = FrameCache.of(method.getDeclaringClass()).analyze(method);
 
         var frame = frames[index];
 
@@ -492,7 +486,7 @@ public final class Code {
      *                           class pool
      */
     public static boolean isVoid(String desc) throws NotFoundException {
-        var returnType = Descriptor.getReturnType(desc, ClassPool.getDefault());
+        var returnType = Descriptor.getReturnType(desc, Javassist.sharedPool());
 
         return returnType == CtClass.voidType;
     }
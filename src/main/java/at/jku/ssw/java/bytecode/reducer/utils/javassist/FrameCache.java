@@ -0,0 +1,299 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import javassist.CtBehavior;
+import javassist.CtClass;
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.analysis.Analyzer;
+import javassist.bytecode.analysis.Frame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Caches the execution frames of methods, so that the data-flow analysis
+ * is only repeated for methods whose code actually changed.
+ * The frames are only cached for the duration of a reduction run
+ * (see {@link #scoped(Callable)}), as they refer to the class pools of
+ * the analyzed classes.
+ * Within a run, the frames of a class that is loaded from the same
+ * bytecode array as in the previous step are looked up directly.
+ * Otherwise the frames are identified by the method and a hash of its
+ * code, exception table and the constant pool of the declaring class.
+ * The cached frames are shared and must therefore not be modified.
+ * They describe the methods as they were loaded.
+ */
+public final class FrameCache {
+
+    /**
+     * The maximum number of methods whose frames are cached in a run.
+     */
+    private static final int CAPACITY = 1024;
+
+    /**
+     * The algorithm that is used to hash the code.
+     */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * The cached frames of the reduction run of the current thread.
+     */
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    /**
+     * The cached frames that this instance uses.
+     */
+    private final Scope scope;
+
+    /**
+     * The class whose methods are analyzed.
+     */
+    private final CtClass clazz;
+
+    /**
+     * The bytecode from which the class was loaded
+     * (or {@code null} if it is unknown).
+     */
+    private final byte[] bytecode;
+
+    /**
+     * The hash of the constant pool and super class of the class
+     * (computed on first use).
+     */
+    private byte[] classHash;
+
+    private FrameCache(Scope scope, CtClass clazz, byte[] bytecode) {
+        this.scope = scope;
+        this.clazz = clazz;
+        this.bytecode = bytecode;
+    }
+
+    /**
+     * Runs the given action, where the frames that are analyzed by the
+     * current thread are cached until the action completes.
+     * Nested calls share the frames of the outermost call.
+     *
+     * @param action The action to run (e.g. a reduction run)
+     * @param <T>    The type of the result
+     * @return the result of the action
+     * @throws Exception if the action fails
+     */
+    public static <T> T scoped(Callable<T> action) throws Exception {
+        if (SCOPE.get() != null)
+            return action.call();
+
+        SCOPE.set(new Scope());
+
+        try {
+            return action.call();
+        } finally {
+            SCOPE.remove();
+        }
+    }
+
+    /**
+     * Provides access to the cached frames of the methods of the given class.
+     * Outside of {@link #scoped(Callable)}, the frames are not cached.
+     *
+     * @param clazz The class whose methods are analyzed
+     * @return the frame cache for the given class
+     */
+    public static FrameCache of(CtClass clazz) {
+        return of(clazz, null);
+    }
+
+    /**
+     * Provides access to the cached frames of the methods of the given class
+     * that was loaded from the given bytecode.
+     * If the same bytecode array was analyzed in the previous step
+     * (e.g. after a rejected candidate), the frames are retrieved without
+     * hashing the methods again.
+     *
+     * @param clazz    The class whose methods are analyzed
+     * @param bytecode The (unmodified) bytecode of the class
+     * @return the frame cache for the given class
+     */
+    public static FrameCache of(CtClass clazz, byte[] bytecode) {
+        var scope = SCOPE.get();
+
+        if (scope == null)
+            return new FrameCache(new Scope(), clazz, bytecode);
+
+        // the class is analyzed by multiple components in the same step
+        if (scope.current == null || scope.current.clazz != clazz)
+            scope.current = new FrameCache(scope, clazz, bytecode);
+
+        return scope.current;
+    }
+
+    /**
+     * Retrieves the execution frames of the given method and only
+     * analyzes the method if its current code was not analyzed before.
+     *
+     * @param method The method to analyze
+     * @return the frames of the method which store the stack and local
+     * variables for each index position
+     * @throws BadBytecode if the bytecode of the method is invalid
+     */
+    public Frame[] analyze(CtBehavior method) throws BadBytecode {
+        var name = method.getMethodInfo().getName() + method.getSignature();
+
+        if (bytecode != null && bytecode == scope.version) {
+            var cached = scope.latest.get(name);
+
+            if (cached != null)
+                return cached;
+        }
+
+        var key    = new Key(clazz.getName() + "." + name, hash(method));
+        var result = scope.frames.get(key);
+
+        if (result == null) {
+            result = new Analyzer().analyze(clazz, method.getMethodInfo());
+            scope.frames.put(key, result);
+        }
+
+        if (bytecode != null) {
+            if (bytecode != scope.version) {
+                scope.version = bytecode;
+                scope.latest = new HashMap<>();
+            }
+
+            scope.latest.put(name, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the hash of the given method's code in the context
+     * of the current class.
+     *
+     * @param method The method
+     * @return the hash of the method
+     */
+    private byte[] hash(CtBehavior method) {
+        var digest = digest();
+        var ca     = method.getMethodInfo().getCodeAttribute();
+
+        digest.update(classHash());
+
+        if (ca != null) {
+            var et     = ca.getExceptionTable();
+            var buffer = ByteBuffer.allocate(8 + 16 * et.size());
+
+            buffer.putInt(ca.getMaxStack()).putInt(ca.getMaxLocals());
+
+            for (int i = 0; i < et.size(); i++)
+                buffer.putInt(et.startPc(i))
+                        .putInt(et.endPc(i))
+                        .putInt(et.handlerPc(i))
+                        .putInt(et.catchType(i));
+
+            digest.update(buffer.array());
+            digest.update(ca.getCode());
+        }
+
+        return digest.digest();
+    }
+
+    /**
+     * Computes the hash of the constant pool and the super class
+     * of the current class.
+     *
+     * @return the hash of the class context
+     */
+    private byte[] classHash() {
+        if (classHash != null)
+            return classHash;
+
+        var classFile = clazz.getClassFile();
+        var digest    = digest();
+
+        try (var out = new ByteArrayOutputStream()) {
+            classFile.getConstPool().write(new DataOutputStream(out));
+            digest.update(out.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        digest.update(String.valueOf(classFile.getSuperclass()).getBytes(StandardCharsets.UTF_8));
+
+        return classHash = digest.digest();
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The frames that are cached during a reduction run.
+     */
+    private static final class Scope {
+
+        /**
+         * The frames of the least recently analyzed methods.
+         */
+        private final Map<Key, Frame[]> frames = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Frame[]> eldest) {
+                return size() > CAPACITY;
+            }
+        };
+
+        /**
+         * The bytecode that was analyzed most recently.
+         */
+        private byte[] version;
+
+        /**
+         * The frames of the methods of the most recently analyzed bytecode
+         * mapped by the method names and descriptors.
+         */
+        private Map<String, Frame[]> latest = new HashMap<>();
+
+        /**
+         * The cache of the class that is currently analyzed.
+         */
+        private FrameCache current;
+    }
+
+    /**
+     * Identifies a method and the hash of its code.
+     */
+    private static final class Key {
+        private final String method;
+        private final byte[] hash;
+
+        Key(String method, byte[] hash) {
+            this.method = method;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            var key = (Key) o;
+
+            return method.equals(key.method) && Arrays.equals(hash, key.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + Arrays.hashCode(hash);
+        }
+    }
+}
@@ -1,31 +1,149 @@
 package at.jku.ssw.java.bytecode.reducer.utils.javassist;
 
+import javassist.ByteArrayClassPath;
+import javassist.ClassPath;
 import javassist.ClassPool;
 import javassist.CtClass;
+import javassist.NotFoundException;
+import org.objectweb.asm.ClassReader;
 
 import java.io.*;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
 
 /**
  * Utility class that contains helpers for Javassist.
  */
 public class Javassist {
 
+    /**
+     * Class pool that is shared by all loaded classes and only resolves
+     * classes from the system class path (e.g. JDK types).
+     * The classes in this pool are therefore never modified.
+     */
+    private static final ClassPool SHARED_POOL = new ClassPool(true);
+
+    /**
+     * The class path that resolves the other classes of the reduced
+     * program (if any) for the classes that are loaded by this thread.
+     */
+    private static final ThreadLocal<ClassPath> CLASS_PATH = new ThreadLocal<>();
+
+    /**
+     * Maps the loaded classes to the bytecode they were loaded from
+     * (as long as the classes are reachable).
+     */
+    private static final Map<CtClass, byte[]> SOURCES = Collections.synchronizedMap(new WeakHashMap<>());
+
     private Javassist() {
     }
 
+    /**
+     * Retrieves the class pool that resolves the classes of the system
+     * class path. Those classes must not be modified.
+     *
+     * @return the shared class pool
+     */
+    public static ClassPool sharedPool() {
+        return SHARED_POOL;
+    }
+
+    /**
+     * Runs the given action, where the classes that are loaded by
+     * the current thread resolve the classes of the reduced program
+     * from the given class path (see {@link #loadClass(byte[])}).
+     *
+     * @param classPath The class path of the reduced program
+     * @param action    The action to run
+     * @param <T>       The type of the result
+     * @return the result of the action
+     * @throws Exception if the action fails
+     */
+    public static <T> T withClassPath(ClassPath classPath, Callable<T> action) throws Exception {
+        var previous = CLASS_PATH.get();
+        CLASS_PATH.set(classPath);
+
+        try {
+            return action.call();
+        } finally {
+            if (previous == null)
+                CLASS_PATH.remove();
+            else
+                CLASS_PATH.set(previous);
+        }
+    }
+
+    /**
+     * Retrieves the class path of the reduced program for the current
+     * thread (see {@link #withClassPath(ClassPath, Callable)}).
+     *
+     * @return the class path or {@code null} if the classes are not
+     * reduced as part of a program
+     */
+    public static ClassPath classPath() {
+        return CLASS_PATH.get();
+    }
+
     /**
      * Loads the class from the given bytes (that should contain a class file).
+     * Every class is loaded into its own class pool (that delegates to
+     * the {@link #sharedPool() shared pool}), which is discarded together
+     * with the class. This keeps the memory usage constant over many
+     * reduction steps and allows concurrent reductions.
+     * Other classes of the reduced program are resolved from the class
+     * path that is given to {@link #withClassPath(ClassPath, Callable)}
+     * (if any), which always reflects their current bytecode.
+     * The class is looked up in its pool (instead of being created),
+     * so that it is only marked as modified once it is actually changed
+     * (see {@link #source(CtClass)}).
      *
      * @param bytecode A byte array that describes the bytecode of a class
      * @return the {@link CtClass} corresponding to the bytecode
      * @throws IOException if the bytecode is invalid
      */
     public static CtClass loadClass(byte[] bytecode) throws IOException {
-        try (InputStream is = new ByteArrayInputStream(bytecode)) {
-            return ClassPool.getDefault().makeClass(is);
+        String name;
+        try {
+            name = new ClassReader(bytecode).getClassName().replace('/', '.');
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid class file", e);
+        }
+
+        // the class itself and the classes of the reduced program
+        // take precedence over the system class path
+        var pool = new ClassPool(SHARED_POOL);
+        pool.childFirstLookup = true;
+        pool.appendClassPath(new ByteArrayClassPath(name, bytecode));
+
+        var classPath = CLASS_PATH.get();
+
+        if (classPath != null)
+            pool.appendClassPath(classPath);
+
+        try {
+            var clazz = pool.get(name);
+            SOURCES.put(clazz, bytecode);
+            return clazz;
+        } catch (NotFoundException e) {
+            throw new IOException(e);
         }
     }
 
+    /**
+     * Retrieves the bytecode that the given class was loaded from
+     * (see {@link #loadClass(byte[])}), which allows to skip the
+     * generation of the bytecode as long as the class is not modified.
+     *
+     * @param clazz The loaded class
+     * @return the original bytecode or {@code null} if the class was
+     * modified or not loaded from bytecode
+     */
+    public static byte[] source(CtClass clazz) {
+        return clazz.isModified() ? null : SOURCES.get(clazz);
+    }
+
     /**
      * Retrieves the bytecode of the given class.
      *
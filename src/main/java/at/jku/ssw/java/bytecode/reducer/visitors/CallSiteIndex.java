@@ -0,0 +1,90 @@
+package at.jku.ssw.java.bytecode.reducer.visitors;
+
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CallSite;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.*;
+
+/**
+ * {@link ClassVisitor} that collects all method calls of a class
+ * (except for constructor calls) in a single pass.
+ * The call sites of a bytecode are only collected once, as long as
+ * the bytecode is in use (e.g. while the candidates that are derived from
+ * the same bytecode are generated).
+ */
+public class CallSiteIndex extends ClassVisitor {
+
+    private static final String INIT = "<init>";
+
+    /**
+     * The call sites of recently indexed bytecodes.
+     * Byte arrays are identified by reference, which is sufficient as the
+     * bytecodes are not modified.
+     */
+    private static final Map<byte[], List<CallSite>> INDEX =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The collected call sites in the order of their occurrence.
+     */
+    private final List<CallSite> sites;
+
+    private CallSiteIndex() {
+        super(Opcodes.ASM6);
+        this.sites = new ArrayList<>();
+    }
+
+    /**
+     * Retrieves the call sites of the given bytecode.
+     *
+     * @param bytecode The bytecode of the class
+     * @return the call sites in the order of their occurrence
+     */
+    public static List<CallSite> of(byte[] bytecode) {
+        var sites = INDEX.get(bytecode);
+
+        if (sites == null) {
+            var index = new CallSiteIndex();
+
+            new ClassReader(bytecode).accept(index, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+            sites = Collections.unmodifiableList(index.sites);
+            INDEX.put(bytecode, sites);
+        }
+
+        return sites;
+    }
+
+    /**
+     * Generates the name that identifies the given member within its class.
+     *
+     * @param name       The name of the member
+     * @param descriptor The descriptor of the member
+     * @return the unique name of the member
+     */
+    public static String member(String name, String descriptor) {
+        return name + descriptor;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        final var member = member(name, descriptor);
+
+        return new MethodVisitor(api) {
+            private final Map<String, Integer> ordinals = new HashMap<>();
+
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String methodName, String methodDescriptor, boolean isInterface) {
+                if (methodName.equals(INIT))
+                    return;
+
+                int ordinal = ordinals.merge(owner + "." + methodName + methodDescriptor, 1, Integer::sum) - 1;
+
+                sites.add(new CallSite(member, owner, methodName, methodDescriptor, ordinal));
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package at.jku.ssw.java.bytecode.reducer.visitors;
+
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.objectweb.asm.Opcodes.ASM6;
+
+/**
+ * {@link ClassVisitor} that collects the methods which the preceding
+ * visitors report as changed (see {@link PatternMethodAdapter#changed()}).
+ * The events themselves are discarded, therefore a pass that ends
+ * in this visitor neither encodes nor records anything.
+ */
+public class ChangeLocator extends ClassVisitor {
+
+    /**
+     * The unique names of the changed methods
+     * (see {@link CallSiteIndex#member(String, String)}).
+     */
+    private final Set<String> changed;
+
+    public ChangeLocator() {
+        super(ASM6);
+        this.changed = new HashSet<>();
+    }
+
+    /**
+     * Returns the methods that were reported as changed.
+     *
+     * @return the unique names of the changed methods
+     */
+    public Set<String> changed() {
+        return changed;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        return new Sink(CallSiteIndex.member(name, descriptor));
+    }
+
+    /**
+     * Discards the events of a single method and receives
+     * the change reports of the adapters.
+     */
+    final class Sink extends MethodVisitor {
+
+        /**
+         * The unique name of the method.
+         */
+        private final String member;
+
+        private Sink(String member) {
+            super(ASM6);
+            this.member = member;
+        }
+
+        /**
+         * Marks the method as changed.
+         */
+        void changed() {
+            changed.add(member);
+        }
+    }
+}
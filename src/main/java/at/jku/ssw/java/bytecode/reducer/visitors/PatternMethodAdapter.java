@@ -33,6 +33,17 @@ public abstract class PatternMethodAdapter extends MethodVisitor {
      */
     protected abstract void visitInsn();
 
+    /**
+     * Reports that a pattern was matched and therefore
+     * the method is changed (see {@link ChangeLocator}).
+     * Adapters have to report every change, as the code of unreported
+     * methods may be copied from the original class.
+     */
+    protected void changed() {
+        if (mv instanceof ChangeLocator.Sink)
+            ((ChangeLocator.Sink) mv).changed();
+    }
+
     /**
      * {@inheritDoc}
      */
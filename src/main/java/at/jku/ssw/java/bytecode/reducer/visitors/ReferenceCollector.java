@@ -0,0 +1,218 @@
+package at.jku.ssw.java.bytecode.reducer.visitors;
+
+import org.objectweb.asm.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link ClassVisitor} that collects all field accesses and method calls
+ * of a class in a single pass.
+ * Every access is recorded twice: once for the exact member
+ * (see {@link #memberKey(String, String, String)}) and once for all members
+ * of the same name and descriptor (see {@link #nameKey(String, String)}),
+ * as accesses to inherited members or virtual calls may refer to the
+ * member via a different owner.
+ */
+public class ReferenceCollector extends ClassVisitor {
+
+    private static final String INIT   = "<init>";
+    private static final String CLINIT = "<clinit>";
+
+    /**
+     * The internal name of the visited class.
+     */
+    private String className;
+
+    /**
+     * The collected usages mapped by their keys.
+     */
+    private final Map<String, Usage> usages;
+
+    public ReferenceCollector() {
+        super(Opcodes.ASM6);
+        this.usages = new HashMap<>();
+    }
+
+    /**
+     * Collects the references of the given bytecode.
+     *
+     * @param bytecode The bytecode of the class
+     * @return the usages of all referenced members mapped by their keys
+     */
+    public static Map<String, Usage> collect(byte[] bytecode) {
+        var collector = new ReferenceCollector();
+
+        new ClassReader(bytecode).accept(collector, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        return collector.usages;
+    }
+
+    /**
+     * Generates the key that identifies the given member exactly.
+     *
+     * @param owner      The internal name of the declaring class
+     * @param name       The name of the member
+     * @param descriptor The descriptor of the member
+     * @return the key of the member
+     */
+    public static String memberKey(String owner, String name, String descriptor) {
+        return owner + "." + nameKey(name, descriptor);
+    }
+
+    /**
+     * Generates the key that identifies all members of the given name
+     * and descriptor (regardless of the declaring class).
+     *
+     * @param name       The name of the member
+     * @param descriptor The descriptor of the member
+     * @return the key of the members
+     */
+    public static String nameKey(String name, String descriptor) {
+        return name + ":" + descriptor;
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        super.visit(version, access, name, signature, superName, interfaces);
+        this.className = name;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        final boolean isInitializer = name.equals(INIT) || name.equals(CLINIT);
+
+        return new MethodVisitor(api) {
+            @Override
+            public void visitFieldInsn(int opcode, String owner, String fieldName, String fieldDescriptor) {
+                boolean isWrite = opcode == Opcodes.PUTFIELD || opcode == Opcodes.PUTSTATIC;
+
+                record(owner, fieldName, fieldDescriptor, u -> {
+                    if (!isWrite)
+                        u.reads++;
+                    else if (isInitializer)
+                        u.initWrites++;
+                    else
+                        u.writes++;
+                });
+            }
+
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String methodName, String methodDescriptor, boolean isInterface) {
+                boolean isRecursion = owner.equals(className) &&
+                        methodName.equals(name) &&
+                        methodDescriptor.equals(descriptor);
+
+                record(owner, methodName, methodDescriptor, u -> {
+                    if (isRecursion)
+                        u.selfCalls++;
+                    else
+                        u.calls++;
+                });
+            }
+
+            @Override
+            public void visitInvokeDynamicInsn(String indyName, String indyDescriptor, Handle bsm, Object... bsmArgs) {
+                // e.g. the implementation methods of lambdas
+                visitHandle(bsm);
+
+                for (var arg : bsmArgs)
+                    if (arg instanceof Handle)
+                        visitHandle((Handle) arg);
+            }
+
+            @Override
+            public void visitLdcInsn(Object value) {
+                if (value instanceof Handle)
+                    visitHandle((Handle) value);
+            }
+        };
+    }
+
+    /**
+     * Records the member that the given method handle refers to.
+     *
+     * @param handle The method handle
+     */
+    private void visitHandle(Handle handle) {
+        record(handle.getOwner(), handle.getName(), handle.getDesc(), u -> {
+            switch (handle.getTag()) {
+                case Opcodes.H_GETFIELD:
+                case Opcodes.H_GETSTATIC:
+                    u.reads++;
+                    break;
+                case Opcodes.H_PUTFIELD:
+                case Opcodes.H_PUTSTATIC:
+                    u.writes++;
+                    break;
+                default:
+                    u.calls++;
+            }
+        });
+    }
+
+    /**
+     * Updates the usages of the given member.
+     */
+    private void record(String owner, String name, String descriptor, Consumer<Usage> update) {
+        update.accept(usages.computeIfAbsent(memberKey(owner, name, descriptor), k -> new Usage()));
+        update.accept(usages.computeIfAbsent(nameKey(name, descriptor), k -> new Usage()));
+    }
+
+    /**
+     * The number of accesses of a member (or of all members with the
+     * same name and descriptor).
+     */
+    public static final class Usage {
+        /**
+         * The number of read accesses of a field.
+         */
+        public int reads;
+
+        /**
+         * The number of write accesses of a field
+         * outside of initializers.
+         */
+        public int writes;
+
+        /**
+         * The number of write accesses of a field
+         * within initializers.
+         */
+        public int initWrites;
+
+        /**
+         * The number of calls of a method (except for recursions).
+         */
+        public int calls;
+
+        /**
+         * The number of recursive calls of a method.
+         */
+        public int selfCalls;
+
+        /**
+         * Adds the given usages (or subtracts them if the sign is negative).
+         *
+         * @param other The usages to add
+         * @param sign  Either {@code 1} or {@code -1}
+         */
+        public void add(Usage other, int sign) {
+            reads += sign * other.reads;
+            writes += sign * other.writes;
+            initWrites += sign * other.initWrites;
+            calls += sign * other.calls;
+            selfCalls += sign * other.selfCalls;
+        }
+
+        /**
+         * Checks whether there are any accesses.
+         *
+         * @return {@code true} if the member is accessed; {@code false} otherwise
+         */
+        public boolean any() {
+            return reads + writes + initWrites + calls + selfCalls > 0;
+        }
+    }
+}
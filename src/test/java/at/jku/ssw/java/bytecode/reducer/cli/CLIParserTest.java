@@ -23,16 +23,10 @@ public class CLIParserTest {
     }
 
     private static ContextFactory emptyContextFactory() {
-        return new ContextFactory(
-                new String[0],
-                new String[0],
-                "",
-                DEFAULT_OUT,
-                DEFAULT_TEMP,
-                new String[0],
-                false,
-                -1L
-        );
+        return ContextFactory.builder()
+                .outDir(DEFAULT_OUT)
+                .tempDir(DEFAULT_TEMP)
+                .build();
     }
 
     // endregion
@@ -90,20 +84,130 @@ public class CLIParserTest {
         assertThrows(UnrecognizedOptionException.class, () -> parse("-notanoption"));
     }
 
+    @Test
+    void testJobsArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .jobs(4)
+                .build();
+
+        assertEquals(expected, parse("-j", "4"));
+        assertEquals(expected, parse("--jobs", "4"));
+        assertEquals(emptyContextFactory(), parse("-j", "1"));
+
+        assertThrows(ParseException.class, () -> parse("-j", "0"));
+        assertThrows(ParseException.class, () -> parse("-j", "-2"));
+    }
+
+    @Test
+    void testCacheArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .resultCache("results.cache")
+                .build();
+
+        assertEquals(expected, parse("-c", "results.cache"));
+        assertEquals(expected, parse("--cache", "results.cache"));
+    }
+
+    @Test
+    void testWorkerArguments() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .classFiles("A.class", "B.class")
+                .mainClass("A")
+                .pattern("HASH: 42")
+                .build();
+
+        assertEquals(expected, parse("-m", "A", "-p", "HASH: 42", "A.class", "B.class"));
+        assertEquals(expected, parse("--main", "A", "--pattern", "HASH: 42", "A.class", "B.class"));
+
+        assertThrows(ParseException.class, () -> parse("-p", "HASH: 42"));
+    }
+
+    @Test
+    void testResumeArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .resume(true)
+                .build();
+
+        assertEquals(expected, parse("-r"));
+        assertEquals(expected, parse("--resume"));
+    }
+
+    @Test
+    void testCheckpointArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .checkpoint(true)
+                .build();
+
+        assertEquals(expected, parse("-C"));
+        assertEquals(expected, parse("--checkpoint"));
+    }
+
+    @Test
+    void testMemoryArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .memoryLimit(256L)
+                .build();
+
+        assertEquals(expected, parse("-mem", "256"));
+        assertEquals(expected, parse("--in-memory", "256"));
+
+        assertThrows(ParseException.class, () -> parse("-mem", "0"));
+    }
+
+    @Test
+    void testWriteIntervalArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .writeInterval(5000L)
+                .build();
+
+        assertEquals(expected, parse("-w", "5000"));
+        assertEquals(expected, parse("--interval", "5000"));
+        assertEquals(emptyContextFactory(), parse("-w", "1000"));
+
+        assertThrows(ParseException.class, () -> parse("-w", "0"));
+    }
+
+    @Test
+    void testMetricsArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .metrics("metrics")
+                .build();
+
+        assertEquals(expected, parse("-M", "metrics"));
+        assertEquals(expected, parse("--metrics", "metrics"));
+    }
+
+    @Test
+    void testAdaptiveTimeoutArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .timeout(500L)
+                .timeoutFactor(3.0)
+                .build();
+
+        assertEquals(expected, parse("-t", "500", "-a", "3"));
+        assertEquals(expected, parse("--timeout", "500", "--adaptive", "3.0"));
+
+        assertThrows(ParseException.class, () -> parse("-a", "0"));
+    }
+
+    @Test
+    void testVerifyArgument() throws ParseException {
+        final ContextFactory expected = ContextFactory.builder()
+                .verify(true)
+                .build();
+
+        assertEquals(expected, parse("-V"));
+        assertEquals(expected, parse("--verify"));
+    }
+
     @Test
     void testOnlyClassFileArgs() throws ParseException {
         final String[] args = {"file1", "file2", "file3", "1", ""};
 
-        final ContextFactory expected = new ContextFactory(
-                Arrays.copyOfRange(args, 1, 5),
-                Arrays.copyOf(args, 1),
-                "",
-                DEFAULT_OUT,
-                DEFAULT_TEMP,
-                new String[0],
-                false,
-                -1L
-        );
+        final ContextFactory expected = ContextFactory.builder()
+                .classFiles(Arrays.copyOfRange(args, 1, 5))
+                .iTests(Arrays.copyOf(args, 1))
+                .build();
 
         assertEquals(expected, parse(args));
     }
@@ -0,0 +1,120 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
+import javassist.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.V11;
+
+public class BytecodeCacheTest {
+
+    private static byte[] assemble(String name, String superName) {
+        var cw = new ClassWriter(0);
+        cw.visit(V11, ACC_PUBLIC, name, null, superName, null);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static BytecodeCache cache(byte[]... classes) throws Exception {
+        Path dir = Files.createTempDirectory("cache");
+        dir.toFile().deleteOnExit();
+
+        for (int i = 0; i < classes.length; i++)
+            Files.write(dir.resolve(i + ".class"), classes[i]);
+
+        return new BytecodeCache(List.of(dir));
+    }
+
+    @Test
+    void testDigestOfReplacementMatchesUpdatedCache() throws Exception {
+        var a       = assemble("A", "java/lang/Object");
+        var b       = assemble("B", "java/lang/Object");
+        var reduced = assemble("B", "A");
+
+        var cache    = cache(a, b);
+        var expected = cache.digest("B.class", BytecodeCache.hash("B.class", reduced));
+
+        cache.update("B.class", reduced);
+
+        assertArrayEquals(expected, cache.digest(Set.of()));
+    }
+
+    @Test
+    void testDigestOfRemovalMatchesUpdatedCache() throws Exception {
+        var cache    = cache(assemble("A", "java/lang/Object"), assemble("B", "java/lang/Object"));
+        var expected = cache.digest(Set.of("B.class"));
+
+        cache.remove("B.class");
+
+        assertArrayEquals(expected, cache.digest(Set.of()));
+    }
+
+    @Test
+    void testHashSeparatesNameAndBytecode() {
+        assertFalse(Arrays.equals(
+                BytecodeCache.hash("A.class", new byte[]{1, 2}),
+                BytecodeCache.hash("A.class\u0001", new byte[]{2})
+        ));
+    }
+
+    @Test
+    void testLoadedClassesResolveCachedClasses() throws Exception {
+        var a = assemble("pkg/A", "java/lang/Object");
+        var b = assemble("pkg/B", "pkg/A");
+
+        var cache = cache(a, b);
+
+        var superclass = Javassist.withClassPath(cache, () -> Javassist.loadClass(b).getSuperclass());
+
+        assertEquals("pkg.A", superclass.getName());
+        assertEquals("java.lang.Object", superclass.getSuperclass().getName());
+
+        // without the class path only the system classes are resolved
+        assertThrows(NotFoundException.class, () -> Javassist.loadClass(b).getSuperclass());
+    }
+
+    @Test
+    void testResourcesOfJarFilesAreWritten() throws Exception {
+        var dir = Files.createTempDirectory("jar");
+        var jar = dir.resolve("input.jar");
+
+        try (var out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("pkg/A.class"));
+            out.write(assemble("pkg/A", "java/lang/Object"));
+            out.putNextEntry(new JarEntry("pkg/config.properties"));
+            out.write("key=value".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new JarEntry("META-INF/services/pkg.A"));
+            out.write("pkg.A".getBytes(StandardCharsets.UTF_8));
+        }
+
+        var cache     = new BytecodeCache(List.of(jar));
+        var workspace = Files.createDirectory(dir.resolve("workspace"));
+
+        cache.write(workspace, Storage.disk("test", workspace));
+
+        assertEquals(Set.of("pkg/A.class"), cache.classes());
+        assertTrue(Files.isRegularFile(workspace.resolve("pkg/A.class")));
+        assertEquals("key=value", Files.readString(workspace.resolve("pkg/config.properties")));
+        assertEquals("pkg.A", Files.readString(workspace.resolve("META-INF/services/pkg.A")));
+
+        FileUtils.delete(dir);
+    }
+}
@@ -0,0 +1,77 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.objectweb.asm.Opcodes.*;
+
+public class BytecodeVerifierTest {
+
+    private final BytecodeVerifier verifier = new BytecodeVerifier();
+
+    /**
+     * Assembles a class with a single static method of type {@code ()I}.
+     */
+    private static byte[] assemble(int access, Consumer<MethodVisitor> code) {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V11, ACC_PUBLIC | ACC_ABSTRACT, "Sample", null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(access, "m", "()I", null, null);
+        code.accept(mv);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    @Test
+    void testValidMethod() {
+        assertTrue(verifier.isValid(assemble(ACC_STATIC, mv -> {
+            mv.visitCode();
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IRETURN);
+            mv.visitMaxs(0, 0);
+        })));
+    }
+
+    @Test
+    void testAbstractMethod() {
+        assertTrue(verifier.isValid(assemble(ACC_ABSTRACT, mv -> {})));
+    }
+
+    @Test
+    void testStackUnderflow() {
+        assertFalse(verifier.isValid(assemble(ACC_STATIC, mv -> {
+            mv.visitCode();
+            mv.visitInsn(POP);
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IRETURN);
+            mv.visitMaxs(0, 0);
+        })));
+    }
+
+    @Test
+    void testIncompatibleReturnValue() {
+        assertFalse(verifier.isValid(assemble(ACC_STATIC, mv -> {
+            mv.visitCode();
+            mv.visitInsn(ACONST_NULL);
+            mv.visitInsn(IRETURN);
+            mv.visitMaxs(0, 0);
+        })));
+    }
+
+    @Test
+    void testMissingCode() {
+        assertFalse(verifier.isValid(assemble(ACC_STATIC, mv -> {})));
+    }
+
+    @Test
+    void testMalformedClassFile() {
+        assertFalse(verifier.isValid(new byte[]{(byte) 0xCA, (byte) 0xFE}));
+    }
+}
@@ -0,0 +1,169 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.io.OutputWriter;
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
+import at.jku.ssw.java.bytecode.reducer.modules.cleanup.RemoveNOPs;
+import at.jku.ssw.java.bytecode.reducer.modules.flow.RemoveInstructionSequences;
+import at.jku.ssw.java.bytecode.reducer.modules.methods.RemoveEmptyMethods;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.V11;
+
+public class CheckpointTest {
+
+    private static final List<Class<? extends Reducer>> MODULES = List.of(
+            RemoveInstructionSequences.class,
+            RemoveNOPs.class,
+            RemoveEmptyMethods.class
+    );
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory(CheckpointTest.class.getSimpleName()).resolve(Checkpoint.DIR);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        FileUtils.delete(dir.getParent());
+    }
+
+    /**
+     * Finishes the first stage with changes and interrupts the second one
+     * after completing the class {@code A.class}.
+     */
+    private void interrupt() throws Exception {
+        var checkpoint = new Checkpoint(dir, true, false);
+        var scheduler  = new Scheduler(MODULES);
+
+        assertEquals(Optional.of(RemoveInstructionSequences.class), scheduler.next());
+        scheduler.record(RemoveInstructionSequences.class, true, 10, 1000);
+        checkpoint.finish(0, RemoveInstructionSequences.class, true, 10, 1000);
+
+        assertEquals(Optional.of(RemoveNOPs.class), scheduler.next());
+        checkpoint.complete(1, RemoveNOPs.class.getSimpleName(), "A.class");
+    }
+
+    @Test
+    void testResumeReplaysFinishedStages() throws Exception {
+        interrupt();
+
+        var checkpoint = new Checkpoint(dir, true, true);
+        var scheduler  = new Scheduler(MODULES);
+
+        assertEquals(Optional.of(RemoveInstructionSequences.class), scheduler.next());
+        assertTrue(checkpoint.replay(0, RemoveInstructionSequences.class, scheduler));
+
+        // the interrupted stage is continued
+        assertEquals(Optional.of(RemoveNOPs.class), scheduler.next());
+        assertFalse(checkpoint.replay(1, RemoveNOPs.class, scheduler));
+        assertTrue(checkpoint.isCompleted(1, RemoveNOPs.class.getSimpleName(), "A.class"));
+        assertFalse(checkpoint.isCompleted(1, RemoveNOPs.class.getSimpleName(), "B.class"));
+        scheduler.record(RemoveNOPs.class, false, 0, 1000);
+
+        assertEquals(Optional.of(RemoveEmptyMethods.class), scheduler.next());
+        assertFalse(checkpoint.isCompleted(2, RemoveEmptyMethods.class.getSimpleName(), "A.class"));
+        scheduler.record(RemoveEmptyMethods.class, false, 0, 1000);
+
+        // the replayed changes of the first stage require another pass
+        assertEquals(Optional.of(RemoveInstructionSequences.class), scheduler.next());
+    }
+
+    @Test
+    void testFinishedStagesAreReplayedAgain() throws Exception {
+        interrupt();
+
+        var checkpoint = new Checkpoint(dir, true, true);
+        var scheduler  = new Scheduler(MODULES);
+
+        scheduler.next();
+        checkpoint.replay(0, RemoveInstructionSequences.class, scheduler);
+        scheduler.next();
+        scheduler.record(RemoveNOPs.class, false, 0, 1000);
+        checkpoint.finish(1, RemoveNOPs.class, false, 0, 1000);
+
+        // interrupted again during the third stage
+        var resumed = new Checkpoint(dir, true, true);
+        var next    = new Scheduler(MODULES);
+
+        next.next();
+        assertTrue(resumed.replay(0, RemoveInstructionSequences.class, next));
+        next.next();
+        assertTrue(resumed.replay(1, RemoveNOPs.class, next));
+        assertEquals(Optional.of(RemoveEmptyMethods.class), next.next());
+        assertFalse(resumed.replay(2, RemoveEmptyMethods.class, next));
+        assertFalse(resumed.isCompleted(1, RemoveNOPs.class.getSimpleName(), "A.class"));
+    }
+
+    @Test
+    void testDivergingScheduleDiscardsProgress() throws Exception {
+        interrupt();
+
+        var checkpoint = new Checkpoint(dir, true, true);
+        var scheduler  = new Scheduler(List.of(RemoveNOPs.class, RemoveEmptyMethods.class));
+
+        assertEquals(Optional.of(RemoveNOPs.class), scheduler.next());
+        assertFalse(checkpoint.replay(0, RemoveNOPs.class, scheduler));
+        assertFalse(checkpoint.isCompleted(1, RemoveNOPs.class.getSimpleName(), "A.class"));
+
+        // the discarded stages are not restored later on
+        var resumed = new Checkpoint(dir, true, true);
+
+        assertFalse(resumed.replay(0, RemoveInstructionSequences.class, new Scheduler(MODULES)));
+    }
+
+    private static byte[] assemble(String name) {
+        var cw = new ClassWriter(0);
+        cw.visit(V11, ACC_PUBLIC, name, null, "java/lang/Object", null);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    @Test
+    void testResumeRemovesClassesFromOutputJar() throws Exception {
+        var jar = dir.getParent().resolve("input.jar");
+
+        try (var out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("A.class"));
+            out.write(assemble("A"));
+            out.putNextEntry(new JarEntry("B.class"));
+            out.write(assemble("B"));
+        }
+
+        new Checkpoint(dir, true, false).remove("B.class");
+
+        // the resumed run starts with the unreduced JAR file
+        var cache  = new BytecodeCache(List.of(jar));
+        var outDir = dir.getParent().resolve("out");
+        var output = new OutputWriter(outDir, Storage.disk("test", outDir), 1000, cache.archives());
+
+        new Checkpoint(dir, true, true).restore(cache, output);
+        cache.classes().forEach(fileName -> output.submit(fileName, cache.bytecode(fileName)));
+        output.close();
+
+        assertEquals(List.of("A.class"), List.copyOf(cache.classes()));
+
+        try (var zip = FileSystems.newFileSystem(outDir.resolve("input.jar"), (ClassLoader) null)) {
+            assertTrue(Files.exists(zip.getPath("A.class")));
+            assertFalse(Files.exists(zip.getPath("B.class")));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.V11;
+
+public class ClassRemoverTest {
+
+    private static byte[] assemble(String name, String superName) {
+        var cw = new ClassWriter(0);
+        cw.visit(V11, ACC_PUBLIC, name, null, superName, null);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static BytecodeCache cache(byte[]... classes) throws Exception {
+        Path dir = Files.createTempDirectory("cache");
+        dir.toFile().deleteOnExit();
+
+        for (int i = 0; i < classes.length; i++)
+            Files.write(dir.resolve(i + ".class"), classes[i]);
+
+        return new BytecodeCache(List.of(dir));
+    }
+
+    @Test
+    void testRemovesLastRemainingClass() throws Exception {
+        var cache = cache(assemble("A", "java/lang/Object"), assemble("B", "A"));
+
+        // only interesting without A, which is referenced by B
+        var removed = new ClassRemover(cache).apply(classes -> {
+            if (cache.classes().contains("A.class") && !classes.contains("A.class"))
+                return false;
+
+            classes.forEach(cache::remove);
+            return true;
+        });
+
+        assertEquals(Set.of("A.class", "B.class"), removed);
+        assertTrue(cache.classes().isEmpty());
+    }
+}
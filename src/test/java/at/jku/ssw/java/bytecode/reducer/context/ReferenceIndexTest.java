@@ -0,0 +1,133 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.objectweb.asm.Opcodes.*;
+
+public class ReferenceIndexTest {
+
+    /**
+     * Generates class {@code A} with a field {@code f} that is read in
+     * {@code read()} and the empty methods {@code m()} and {@code n()}.
+     */
+    private static byte[] classA() {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V11, ACC_PUBLIC, "A", null, "java/lang/Object", null);
+        cw.visitField(ACC_PUBLIC, "f", "I", null, null).visitEnd();
+
+        var mv = cw.visitMethod(ACC_PUBLIC, "read", "()I", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, "A", "f", "I");
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        for (var name : List.of("m", "n")) {
+            mv = cw.visitMethod(ACC_PUBLIC, name, "()V", null, null);
+            mv.visitCode();
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Generates class {@code B} that calls {@code A.n()}.
+     */
+    private static byte[] classB() {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V11, ACC_PUBLIC, "B", null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "run", "(LA;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "A", "n", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static BytecodeCache cache() throws Exception {
+        Path dir = Files.createTempDirectory("cache");
+        dir.toFile().deleteOnExit();
+
+        Files.write(dir.resolve("A.class"), classA());
+        Files.write(dir.resolve("B.class"), classB());
+
+        return new BytecodeCache(List.of(dir));
+    }
+
+    @Test
+    void testCallsOfOtherClassesAreConsidered() throws Exception {
+        var cache = cache();
+
+        Javassist.withClassPath(cache, () -> {
+            var clazz  = Javassist.loadClass(cache.bytecode("A.class"));
+            var usages = ReferenceIndex.current().usages(clazz);
+
+            assertTrue(usages.isUnused(clazz.getDeclaredMethod("m")));
+            assertFalse(usages.isUnused(clazz.getDeclaredMethod("n")));
+            assertFalse(usages.isUnused(clazz.getDeclaredField("f")));
+
+            // the index follows the changes of the cache
+            cache.remove("B.class");
+
+            assertTrue(ReferenceIndex.current().usages(clazz).isUnused(clazz.getDeclaredMethod("n")));
+            return null;
+        });
+    }
+
+    @Test
+    void testIndexIsProvidedByCache() throws Exception {
+        var cache = cache();
+
+        assertSame(cache.references(), Javassist.withClassPath(cache, ReferenceIndex::current));
+
+        // classes that are reduced on their own only see their own references
+        var other = cache();
+        var index = ReferenceIndex.current();
+
+        assertNotSame(cache.references(), index);
+        assertNotSame(other.references(), index);
+
+        var clazz = Javassist.loadClass(cache.bytecode("A.class"));
+        assertTrue(index.usages(clazz).isUnused(clazz.getDeclaredMethod("n")));
+    }
+
+    @Test
+    void testModifiedClassesAreScannedAgain() throws Exception {
+        var cache = cache();
+
+        Javassist.withClassPath(cache, () -> {
+            var bytecode = cache.bytecode("A.class");
+            var clazz    = Javassist.loadClass(bytecode);
+
+            assertSame(bytecode, Javassist.source(clazz));
+            assertFalse(ReferenceIndex.current().usages(clazz).isUnused(clazz.getDeclaredField("f")));
+
+            clazz.removeMethod(clazz.getDeclaredMethod("read"));
+
+            assertNull(Javassist.source(clazz));
+            assertTrue(ReferenceIndex.current().usages(clazz).isUnused(clazz.getDeclaredField("f")));
+            return null;
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.modules.cleanup.RemoveNOPs;
+import at.jku.ssw.java.bytecode.reducer.modules.flow.RemoveInstructionSequences;
+import at.jku.ssw.java.bytecode.reducer.modules.methods.RemoveEmptyMethods;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SchedulerTest {
+
+    private static final List<Class<? extends Reducer>> MODULES = List.of(
+            RemoveInstructionSequences.class,
+            RemoveNOPs.class,
+            RemoveEmptyMethods.class
+    );
+
+    @Test
+    void testStopsAfterPassWithoutProgress() {
+        var scheduler = new Scheduler(MODULES);
+
+        MODULES.forEach(m -> {
+            assertEquals(Optional.of(m), scheduler.next());
+            scheduler.record(m, false, 0, 1000);
+        });
+
+        assertEquals(Optional.empty(), scheduler.next());
+    }
+
+    @Test
+    void testOrdersByRemovedBytesPerTestTime() {
+        var scheduler = new Scheduler(MODULES);
+
+        scheduler.next();
+        scheduler.record(RemoveInstructionSequences.class, true, 0, 1000);
+        scheduler.next();
+        scheduler.record(RemoveNOPs.class, true, 100, 1000);
+        scheduler.next();
+        scheduler.record(RemoveEmptyMethods.class, true, 10, 1000);
+
+        assertEquals(Optional.of(RemoveNOPs.class), scheduler.next());
+        assertEquals(Optional.of(RemoveEmptyMethods.class), scheduler.next());
+        assertEquals(Optional.of(RemoveInstructionSequences.class), scheduler.next());
+    }
+
+    @Test
+    void testSkipsModulesWithoutChangesSinceLastRun() {
+        var scheduler = new Scheduler(MODULES);
+
+        scheduler.next();
+        scheduler.record(RemoveInstructionSequences.class, true, 0, 1000);
+        scheduler.next();
+        scheduler.record(RemoveNOPs.class, true, 100, 1000);
+        scheduler.next();
+        scheduler.record(RemoveEmptyMethods.class, false, 0, 1000);
+
+        // nothing changed after the last run of RemoveEmptyMethods
+        assertEquals(Optional.of(RemoveNOPs.class), scheduler.next());
+        assertEquals(Optional.of(RemoveInstructionSequences.class), scheduler.next());
+        assertEquals(Optional.empty(), scheduler.next());
+    }
+}
@@ -0,0 +1,101 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.context.TestSuite.Outcome;
+import at.jku.ssw.java.bytecode.reducer.io.Storage;
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import at.jku.ssw.java.bytecode.reducer.utils.OSUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class TestSuiteTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory(TestSuiteTest.class.getSimpleName());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        FileUtils.delete(dir);
+    }
+
+    @Test
+    void testPrepareFailsForMissingTests() throws Exception {
+        var testDir = Files.createDirectory(dir.resolve("workspace"));
+        var suite   = new TestSuite(Set.of(dir.resolve("missing.sh")), 1000, -1);
+
+        assertThrows(IOException.class, () -> suite.prepare(testDir, Storage.disk("test", dir)));
+    }
+
+    @Test
+    void testMissingTestRejectsCandidate() throws Exception {
+        var itest   = Files.createFile(dir.resolve("itest.sh"));
+        var testDir = Files.createDirectory(dir.resolve("workspace"));
+        var suite   = new TestSuite(Set.of(itest), 1000, -1);
+
+        // the test was not placed in the working directory
+        assertEquals(Outcome.UNKNOWN, suite.test(testDir));
+    }
+
+    private Outcome run(String command, long timeout) throws Exception {
+        var itest   = Files.write(dir.resolve("itest.sh"), ("#!/bin/sh\n" + command + "\n").getBytes(StandardCharsets.UTF_8));
+        var testDir = Files.createDirectory(dir.resolve("workspace"));
+        var suite   = new TestSuite(Set.of(itest), timeout, -1);
+
+        assumeFalse(OSUtils.isWindows());
+        assumeTrue(itest.toFile().setExecutable(true));
+
+        suite.prepare(testDir, Storage.disk("test", dir));
+
+        return suite.test(testDir);
+    }
+
+    @Test
+    void testPassingTest() throws Exception {
+        assertEquals(Outcome.PASSED, run("exit 0", 10_000));
+    }
+
+    @Test
+    void testFailingTest() throws Exception {
+        assertEquals(Outcome.FAILED, run("exit 1", 10_000));
+    }
+
+    @Test
+    void testTimeoutIsUnknown() throws Exception {
+        assertEquals(Outcome.UNKNOWN, run("sleep 10", 500));
+    }
+
+    private static byte[] digest(String mainClass, String pattern) throws Exception {
+        var suite = new WorkerTestSuite(mainClass, pattern, 1000, -1, 1);
+
+        try {
+            return suite.digest(MessageDigest.getInstance("SHA-256"));
+        } finally {
+            suite.close();
+        }
+    }
+
+    @Test
+    void testWorkerDigestSeparatesFields() throws Exception {
+        // the same bytes split differently between the main class and the pattern
+        assertFalse(Arrays.equals(digest("Ab", "c"), digest("A", "bc")));
+        assertFalse(Arrays.equals(digest("A", null), digest("A", "")));
+    }
+}
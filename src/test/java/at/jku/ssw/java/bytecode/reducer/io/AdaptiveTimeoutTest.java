@@ -0,0 +1,84 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptiveTimeoutTest {
+
+    private static final long LIMIT = 10_000;
+
+    private static final double FACTOR = 3;
+
+    private static final String TEST = "test.sh";
+
+    private static void success(AdaptiveTimeout timeout, int times, long millis) {
+        for (int i = 0; i < times; i++)
+            timeout.success(TEST, millis);
+    }
+
+    @Test
+    void testFixedTimeoutBeforeMinSamples() {
+        var timeout = new AdaptiveTimeout(LIMIT, FACTOR);
+
+        assertEquals(LIMIT, timeout.get(TEST));
+
+        success(timeout, AdaptiveTimeout.MIN_SAMPLES - 1, 500);
+        assertEquals(LIMIT, timeout.get(TEST));
+
+        success(timeout, 1, 500);
+        assertEquals(1500, timeout.get(TEST));
+
+        // the samples of other tests are not considered
+        assertEquals(LIMIT, timeout.get("other.sh"));
+    }
+
+    @Test
+    void testMultipleOfPercentile() {
+        var timeout = new AdaptiveTimeout(LIMIT, FACTOR);
+
+        for (int i = 100; i > 0; i--)
+            timeout.success(TEST, i * 10);
+
+        // the 99th percentile of 10, 20, ..., 1000 is 990
+        assertEquals(2970, timeout.get(TEST));
+    }
+
+    @Test
+    void testOldSamplesAreEvicted() {
+        var timeout = new AdaptiveTimeout(LIMIT, FACTOR);
+
+        success(timeout, AdaptiveTimeout.WINDOW, 1000);
+        assertEquals(3000, timeout.get(TEST));
+
+        // the 99th percentile of 200 runs is the third largest run time,
+        // therefore it only drops once two slow runs remain
+        success(timeout, AdaptiveTimeout.WINDOW - 3, 50);
+        assertEquals(3000, timeout.get(TEST));
+
+        success(timeout, 1, 50);
+        assertEquals(150, timeout.get(TEST));
+
+        success(timeout, 2, 50);
+        assertEquals(150, timeout.get(TEST));
+    }
+
+    @Test
+    void testTimeoutIsClamped() {
+        var timeout = new AdaptiveTimeout(LIMIT, FACTOR);
+
+        success(timeout, AdaptiveTimeout.MIN_SAMPLES, 1);
+        assertEquals(AdaptiveTimeout.MIN_TIMEOUT, timeout.get(TEST));
+
+        success(timeout, AdaptiveTimeout.WINDOW, 5000);
+        assertEquals(LIMIT, timeout.get(TEST));
+    }
+
+    @Test
+    void testDisabledAdaptation() {
+        var timeout = new AdaptiveTimeout(LIMIT, 0);
+
+        success(timeout, AdaptiveTimeout.WINDOW, 500);
+        assertEquals(LIMIT, timeout.get(TEST));
+    }
+}
@@ -0,0 +1,138 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OutputWriterTest {
+
+    /**
+     * The flush interval, which is long enough that the tests
+     * control every flush.
+     */
+    private static final long INTERVAL = 3_600_000;
+
+    private Path dir;
+
+    private Path out;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory(OutputWriterTest.class.getSimpleName());
+        out = dir.resolve("out");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        FileUtils.delete(dir);
+    }
+
+    private OutputWriter writer(Map<String, Path> archives) throws Exception {
+        return new OutputWriter(out, Storage.disk("test", out), INTERVAL, archives);
+    }
+
+    /**
+     * Creates a JAR file that contains the classes {@code A} and {@code B}
+     * and a resource.
+     */
+    private Path jar() throws Exception {
+        var jar = dir.resolve("input.jar");
+
+        try (var stream = new JarOutputStream(Files.newOutputStream(jar))) {
+            stream.putNextEntry(new JarEntry("A.class"));
+            stream.write(new byte[]{1});
+            stream.putNextEntry(new JarEntry("B.class"));
+            stream.write(new byte[]{2});
+            stream.putNextEntry(new JarEntry("resource.txt"));
+            stream.write(new byte[]{3});
+        }
+
+        return jar;
+    }
+
+    @Test
+    void testLastSubmittedBytecodeWins() throws Exception {
+        try (var writer = writer(Map.of())) {
+            writer.submit("p/A.class", new byte[]{1});
+            writer.submit("p/A.class", new byte[]{2});
+            writer.flush();
+
+            assertArrayEquals(new byte[]{2}, Files.readAllBytes(out.resolve("p/A.class")));
+
+            // a removal is superseded by a later submission as well
+            writer.remove("p/A.class");
+            writer.submit("p/A.class", new byte[]{3});
+            writer.flush();
+
+            assertArrayEquals(new byte[]{3}, Files.readAllBytes(out.resolve("p/A.class")));
+        }
+    }
+
+    @Test
+    void testRemoveDeletesFile() throws Exception {
+        try (var writer = writer(Map.of())) {
+            writer.submit("A.class", new byte[]{1});
+            writer.flush();
+
+            assertTrue(Files.exists(out.resolve("A.class")));
+
+            writer.remove("A.class");
+            writer.flush();
+
+            assertFalse(Files.exists(out.resolve("A.class")));
+
+            // removing a class that was never written is ignored
+            writer.remove("B.class");
+            writer.flush();
+        }
+    }
+
+    @Test
+    void testRemoveDeletesJarEntry() throws Exception {
+        var jar = jar();
+
+        try (var writer = writer(Map.of("A.class", jar, "B.class", jar))) {
+            writer.submit("A.class", new byte[]{4});
+            writer.remove("B.class");
+        }
+
+        try (var zip = FileSystems.newFileSystem(out.resolve("input.jar"), (ClassLoader) null)) {
+            assertArrayEquals(new byte[]{4}, Files.readAllBytes(zip.getPath("A.class")));
+            assertFalse(Files.exists(zip.getPath("B.class")));
+            assertArrayEquals(new byte[]{3}, Files.readAllBytes(zip.getPath("resource.txt")));
+        }
+
+        // the input is not changed
+        try (var zip = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+            assertArrayEquals(new byte[]{1}, Files.readAllBytes(zip.getPath("A.class")));
+            assertTrue(Files.exists(zip.getPath("B.class")));
+        }
+    }
+
+    @Test
+    void testCloseFlushesPendingWrites() throws Exception {
+        var writer = writer(Map.of());
+
+        writer.submit("A.class", new byte[]{1});
+        writer.submit("B.class", new byte[]{2});
+
+        assertFalse(Files.exists(out.resolve("A.class")));
+
+        writer.close();
+
+        assertArrayEquals(new byte[]{1}, Files.readAllBytes(out.resolve("A.class")));
+        assertArrayEquals(new byte[]{2}, Files.readAllBytes(out.resolve("B.class")));
+    }
+}
@@ -0,0 +1,124 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class StorageTest {
+
+    private static final long LIMIT = 100;
+
+    private Path source;
+
+    private Storage storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        source = Files.createTempDirectory(StorageTest.class.getSimpleName());
+        storage = Storage.memory("test", source, LIMIT);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (!storage.root().equals(source) && Files.exists(storage.root()))
+            FileUtils.delete(storage.root());
+
+        FileUtils.delete(source);
+    }
+
+    /**
+     * Creates the root of the in-memory storage
+     * (or skips the test if the shared memory is not available).
+     */
+    private void requireMemory() throws IOException {
+        assumeTrue(storage.root().startsWith(Storage.SHARED_MEMORY), "Shared memory is not available");
+
+        storage.createDirectories(storage.root());
+    }
+
+    @Test
+    void testLinkedFilesCountTowardsLimit() throws Exception {
+        requireMemory();
+
+        var script = Files.write(source.resolve("itest.sh"), new byte[60]);
+        var target = storage.root().resolve("itest.sh");
+
+        storage.link(script, target);
+        assertThrows(IOException.class, () -> storage.write(storage.root().resolve("A.class"), new byte[60]));
+
+        // replacing the link does not count it twice
+        storage.link(script, target);
+
+        storage.delete(target);
+        storage.write(storage.root().resolve("A.class"), new byte[60]);
+    }
+
+    @Test
+    void testDeletedLinksDoNotFreeUncountedSpace() throws Exception {
+        requireMemory();
+
+        var script = Files.write(source.resolve("itest.sh"), new byte[60]);
+        var dir    = storage.createDirectories(storage.root().resolve("workspace"));
+
+        storage.link(script, dir.resolve("itest.sh"));
+        storage.delete(dir);
+
+        storage.write(storage.root().resolve("A.class"), new byte[60]);
+        assertThrows(IOException.class, () -> storage.write(storage.root().resolve("B.class"), new byte[60]));
+    }
+
+    @Test
+    void testArchiveReplacesJarOnClose() throws Exception {
+        var jar = source.resolve("output.jar");
+
+        try (var out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("A.class"));
+            out.write(new byte[]{1});
+            out.putNextEntry(new JarEntry("B.class"));
+            out.write(new byte[]{2});
+        }
+
+        var entries = new HashMap<String, byte[]>();
+        entries.put("A.class", new byte[]{3});
+        entries.put("B.class", null);
+
+        try (var archive = Storage.disk("test", source).open(jar)) {
+            archive.update(entries);
+
+            // the JAR file is only replaced once the archive is closed
+            try (var zip = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+                assertArrayEquals(new byte[]{1}, Files.readAllBytes(zip.getPath("A.class")));
+            }
+
+            archive.update(Map.of("A.class", new byte[]{4}));
+        }
+
+        try (var zip = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+            assertArrayEquals(new byte[]{4}, Files.readAllBytes(zip.getPath("A.class")));
+            assertFalse(Files.exists(zip.getPath("B.class")));
+        }
+
+        // the archive was replaced by the updated copy
+        try (var files = Files.list(source)) {
+            assertEquals(List.of(jar), files.collect(Collectors.toList()));
+        }
+    }
+}
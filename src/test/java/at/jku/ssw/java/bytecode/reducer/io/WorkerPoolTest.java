@@ -0,0 +1,126 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the nested main classes in worker processes,
+ * where the compiled test classes serve as the working directory.
+ */
+public class WorkerPoolTest {
+
+    private static final long TIMEOUT = 10_000;
+
+    private static Path classes;
+
+    public static class Succeed {
+        public static void main(String[] args) {
+            System.out.println("42");
+        }
+    }
+
+    public static class Fail {
+        public static void main(String[] args) {
+            throw new IllegalStateException();
+        }
+    }
+
+    public static class Exit {
+        public static void main(String[] args) {
+            System.exit(3);
+        }
+    }
+
+    public static class Halt {
+        public static void main(String[] args) {
+            Runtime.getRuntime().halt(4);
+        }
+    }
+
+    public static class Loop {
+        public static void main(String[] args) {
+            //noinspection InfiniteLoopStatement,StatementWithEmptyBody
+            while (true) ;
+        }
+    }
+
+    public static class Crash {
+        public static void main(String[] args) throws Exception {
+            // reflective calls are not redirected
+            Runtime.class.getMethod("halt", int.class).invoke(Runtime.getRuntime(), 5);
+        }
+    }
+
+    public static class ReadInput {
+        public static void main(String[] args) throws IOException {
+            if (System.in.read() != -1)
+                throw new IllegalStateException("Unexpected input");
+        }
+    }
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        classes = Paths.get(WorkerPoolTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static int run(Class<?> mainClass, String pattern, long timeout) throws Exception {
+        try (var pool = new WorkerPool(mainClass.getName(), pattern, timeout, -1, 1)) {
+            return pool.execBlocking(classes);
+        }
+    }
+
+    @Test
+    void testSuccess() throws Exception {
+        assertEquals(ScriptRunner.EXIT_SUCCESS, run(Succeed.class, null, TIMEOUT));
+    }
+
+    @Test
+    void testOutputPattern() throws Exception {
+        assertEquals(ScriptRunner.EXIT_SUCCESS, run(Succeed.class, "^42$", TIMEOUT));
+        assertEquals(TestWorker.EXIT_MISMATCH, run(Succeed.class, "^43$", TIMEOUT));
+    }
+
+    @Test
+    void testFailure() throws Exception {
+        assertEquals(TestWorker.EXIT_ERROR, run(Fail.class, null, TIMEOUT));
+    }
+
+    @Test
+    void testExitDoesNotTerminateWorker() throws Exception {
+        try (var pool = new WorkerPool(Exit.class.getName(), null, TIMEOUT, -1, 1)) {
+            assertEquals(3, pool.execBlocking(classes));
+            assertEquals(3, pool.execBlocking(classes));
+        }
+
+        assertEquals(4, run(Halt.class, null, TIMEOUT));
+    }
+
+    @Test
+    void testTimeout() throws Exception {
+        assertEquals(ScriptRunner.EXIT_TIMEOUT, run(Loop.class, null, 1000));
+    }
+
+    @Test
+    void testCrash() throws Exception {
+        try (var pool = new WorkerPool(Crash.class.getName(), null, TIMEOUT, -1, 1)) {
+            assertEquals(WorkerPool.EXIT_CRASH, pool.execBlocking(classes));
+
+            // the worker is replaced
+            assertEquals(WorkerPool.EXIT_CRASH, pool.execBlocking(classes));
+        }
+    }
+
+    @Test
+    void testInputDoesNotInterfereWithRequests() throws Exception {
+        try (var pool = new WorkerPool(ReadInput.class.getName(), null, TIMEOUT, -1, 1)) {
+            assertEquals(ScriptRunner.EXIT_SUCCESS, pool.execBlocking(classes));
+            assertEquals(ScriptRunner.EXIT_SUCCESS, pool.execBlocking(classes));
+        }
+    }
+}
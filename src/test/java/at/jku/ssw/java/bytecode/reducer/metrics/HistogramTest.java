@@ -0,0 +1,98 @@
+package at.jku.ssw.java.bytecode.reducer.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HistogramTest {
+
+    @Test
+    void testSmallValuesHaveTheirOwnBuckets() {
+        for (int v = 0; v < 8; v++) {
+            assertEquals(v, Histogram.index(v));
+            assertEquals(v, Histogram.upper(v));
+        }
+    }
+
+    @Test
+    void testBucketBounds() {
+        // every power of two is divided into four buckets
+        assertEquals(8, Histogram.index(8));
+        assertEquals(8, Histogram.index(9));
+        assertEquals(9, Histogram.index(10));
+        assertEquals(9, Histogram.upper(8));
+        assertEquals(11, Histogram.upper(9));
+
+        assertEquals(18, Histogram.index(48));
+        assertEquals(18, Histogram.index(55));
+        assertEquals(19, Histogram.index(56));
+        assertEquals(55, Histogram.upper(18));
+
+        // the upper bound of a bucket is its largest value
+        for (long v = 8; v < 1 << 16; v++) {
+            int i = Histogram.index(v);
+
+            assertEquals(v == Histogram.upper(i), Histogram.index(v + 1) == i + 1);
+        }
+
+        assertEquals(Long.MAX_VALUE, Histogram.upper(Histogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void testPercentiles() {
+        var h = new Histogram();
+
+        for (int v = 1; v <= 100; v++)
+            h.record(v);
+
+        assertEquals(100, h.count());
+        assertEquals(5050, h.sum());
+        assertEquals(50, h.mean());
+        assertEquals(100, h.max());
+
+        assertEquals(1, h.percentile(0));
+        assertEquals(55, h.percentile(0.5));
+        assertEquals(95, h.percentile(0.9));
+        // the bucket bound is limited by the maximum
+        assertEquals(100, h.percentile(0.99));
+        assertEquals(100, h.percentile(1));
+    }
+
+    @Test
+    void testEmptyAndNegativeValues() {
+        var h = new Histogram();
+
+        assertEquals(0, h.percentile(0.5));
+        assertEquals(0, h.mean());
+
+        h.record(-5);
+
+        assertEquals(1, h.count());
+        assertEquals(0, h.sum());
+        assertEquals(0, h.percentile(1));
+    }
+
+    @Test
+    void testAdd() {
+        var a = new Histogram();
+        var b = new Histogram();
+
+        a.record(3);
+        a.record(3);
+        b.record(7);
+        b.record(1000);
+
+        a.add(b);
+
+        assertEquals(4, a.count());
+        assertEquals(1013, a.sum());
+        assertEquals(1000, a.max());
+        assertEquals(3, a.percentile(0.5));
+        assertEquals(7, a.percentile(0.75));
+        assertEquals(1000, a.percentile(1));
+
+        // the other histogram is not changed
+        assertEquals(2, b.count());
+        assertEquals(1007, b.sum());
+    }
+}
@@ -0,0 +1,132 @@
+package at.jku.ssw.java.bytecode.reducer.metrics;
+
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Counter;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Stage;
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsTest {
+
+    /**
+     * A module name that has to be escaped in every format.
+     */
+    private static final String MODULE = "Remove\"Module,";
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory(MetricsTest.class.getSimpleName());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        FileUtils.delete(dir);
+    }
+
+    /**
+     * Records a few values in two scopes and writes the reports.
+     */
+    private Metrics run() throws Exception {
+        var metrics = new Metrics();
+        metrics.open(dir);
+
+        metrics.enter(MODULE, "A\tB.class");
+        metrics.count(Counter.GENERATED);
+        metrics.count(Counter.BYTES_REMOVED, 10);
+        metrics.record(Stage.TEST, 5);
+        metrics.leave();
+
+        metrics.count(Counter.GENERATED);
+        metrics.close();
+
+        return metrics;
+    }
+
+    /**
+     * Strips the time stamp from the given event.
+     */
+    private static String withoutTime(String event) {
+        assertTrue(event.matches("\\{\"time\":\\d+,.*"), event);
+
+        return "{" + event.substring(event.indexOf(',') + 1);
+    }
+
+    @Test
+    void testEvents() throws Exception {
+        run();
+
+        var events = Files.readAllLines(dir.resolve(Metrics.EVENTS)).stream()
+                .map(MetricsTest::withoutTime)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(
+                "{\"module\":\"Remove\\\"Module,\",\"class\":\"A\\u0009B.class\",\"metric\":\"generated\",\"count\":1}",
+                "{\"module\":\"Remove\\\"Module,\",\"class\":\"A\\u0009B.class\",\"metric\":\"bytes_removed\",\"count\":10}",
+                "{\"module\":\"Remove\\\"Module,\",\"class\":\"A\\u0009B.class\",\"metric\":\"test\",\"nanos\":5}",
+                "{\"module\":\"\",\"class\":\"\",\"metric\":\"generated\",\"count\":1}"
+        ), events);
+    }
+
+    @Test
+    void testCsvReport() throws Exception {
+        run();
+
+        var lines = Files.readAllLines(dir.resolve(Metrics.REPORT_CSV));
+        var rows  = Counter.values().length + Stage.values().length;
+
+        // one block of rows for each scope and the totals
+        assertEquals(1 + 3 * rows, lines.size());
+        assertEquals("module,class,metric,count,total,mean,p50,p90,p99,max", lines.get(0));
+
+        var scope = "\"Remove\"\"Module,\",A\tB.class,";
+
+        assertTrue(lines.contains(scope + "generated,1,,,,,,"));
+        assertTrue(lines.contains(scope + "bytes_removed,10,,,,,,"));
+        assertTrue(lines.contains(scope + "test,1,5,5,5,5,5,5"));
+        assertTrue(lines.contains(scope + "verify,0,0,0,0,0,0,0"));
+        assertTrue(lines.contains(",,generated,1,,,,,,"));
+        assertTrue(lines.contains("*,*,generated,2,,,,,,"));
+        assertTrue(lines.contains("*,*,test,1,5,5,5,5,5,5"));
+    }
+
+    @Test
+    void testJsonReport() throws Exception {
+        var metrics = run();
+
+        var json = Files.readString(dir.resolve(Metrics.REPORT_JSON));
+
+        assertTrue(json.startsWith("[\n  {\"module\":\"Remove\\\"Module,\",\"class\":\"A\\u0009B.class\",\"counters\":{\"generated\":1,\"accepted\":0,"), json);
+        assertTrue(json.contains("\"bytes_removed\":10}"), json);
+        assertTrue(json.contains("\"test\":{\"count\":1,\"total\":5,\"mean\":5,\"p50\":5,\"p90\":5,\"p99\":5,\"max\":5}"), json);
+        assertTrue(json.contains("{\"module\":\"*\",\"class\":\"*\",\"counters\":{\"generated\":2,"), json);
+        assertTrue(json.endsWith("}}\n]\n") || json.endsWith("}}\n]" + System.lineSeparator()), json);
+
+        assertEquals(2, metrics.total(Counter.GENERATED));
+        assertEquals(10, metrics.total(Counter.BYTES_REMOVED));
+    }
+
+    @Test
+    void testNoReportWithoutDirectory() throws Exception {
+        var metrics = new Metrics();
+
+        metrics.enter(MODULE, null);
+        metrics.count(Counter.ACCEPTED);
+        metrics.leave();
+        metrics.close();
+
+        assertEquals(1, metrics.total(Counter.ACCEPTED));
+        assertFalse(Files.list(dir).findAny().isPresent());
+    }
+}
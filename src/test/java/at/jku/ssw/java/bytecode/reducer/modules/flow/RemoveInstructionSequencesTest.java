@@ -0,0 +1,105 @@
+package at.jku.ssw.java.bytecode.reducer.modules.flow;
+
+import at.jku.ssw.java.bytecode.reducer.modules.flow.RemoveInstructionSequences.Boundaries;
+import at.jku.ssw.java.bytecode.reducer.states.State;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RemoveInstructionSequencesTest {
+
+    private static final String MEMBER = "A.m()";
+
+    private static final byte[] ORIGINAL = {0, 1, 2};
+
+    private static final byte[] REDUCED = {0, 1};
+
+    private static CodePosition range(int begin, int end) {
+        return new CodePosition(MEMBER, begin, end);
+    }
+
+    /**
+     * Rejects every range of the given boundaries.
+     *
+     * @return the attempted ranges in order
+     */
+    private static List<CodePosition> rejectAll(Boundaries boundaries, State.Stable<CodePosition> stable) {
+        var attempts = new ArrayList<CodePosition>();
+
+        for (var cp = boundaries.next(MEMBER, stable); cp.isPresent(); cp = boundaries.next(MEMBER, stable)) {
+            attempts.add(cp.get());
+            stable = stable.toResult(REDUCED, cp.get()).reject();
+        }
+
+        return attempts;
+    }
+
+    @Test
+    void testRangesAreEnumeratedFromLargestToSmallest() {
+        var boundaries = new Boundaries(new int[]{0, 2, 5, 9});
+
+        assertEquals(
+                List.of(
+                        range(0, 9),
+                        range(0, 5),
+                        range(2, 9),
+                        range(0, 2),
+                        range(2, 5),
+                        range(5, 9)
+                ),
+                rejectAll(boundaries, State.of(ORIGINAL))
+        );
+    }
+
+    @Test
+    void testSingleBoundaryHasNoRange() {
+        var boundaries = new Boundaries(new int[]{4});
+
+        assertEquals(Optional.empty(), boundaries.next(MEMBER, State.of(ORIGINAL)));
+    }
+
+    @Test
+    void testEnumerationRestartsAfterAcceptedChange() {
+        var boundaries = new Boundaries(new int[]{0, 2, 5, 9});
+        State.Stable<CodePosition> stable = State.of(ORIGINAL);
+
+        assertEquals(Optional.of(range(0, 9)), boundaries.next(MEMBER, stable));
+        stable = stable.toResult(REDUCED, range(0, 9)).reject();
+
+        assertEquals(Optional.of(range(0, 5)), boundaries.next(MEMBER, stable));
+        stable = stable.toResult(REDUCED, range(0, 5)).reject();
+
+        // the enumeration continues where it stopped as long as
+        // the attempts are cached
+        assertEquals(Optional.of(range(2, 9)), boundaries.next(MEMBER, stable));
+        stable = stable.toResult(REDUCED, range(2, 9)).accept();
+
+        // the accepted change clears the cache, therefore
+        // the previously rejected ranges are tried again
+        assertEquals(
+                List.of(
+                        range(0, 9),
+                        range(0, 5),
+                        range(2, 9),
+                        range(0, 2),
+                        range(2, 5),
+                        range(5, 9)
+                ),
+                rejectAll(boundaries, stable)
+        );
+    }
+
+    @Test
+    void testCachedRangesAreSkipped() {
+        var boundaries = new Boundaries(new int[]{0, 2, 5});
+        var stable     = State.of(ORIGINAL, Set.of(range(0, 5), range(2, 5)));
+
+        assertEquals(List.of(range(0, 2)), rejectAll(boundaries, stable));
+    }
+}
@@ -5,6 +5,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist.loadClass;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class RemoveUnusedFieldsTest extends ReducerTest<RemoveUnusedFields> {
 
     @BeforeEach
@@ -33,4 +40,32 @@ public class RemoveUnusedFieldsTest extends ReducerTest<RemoveUnusedFields> {
                 .and(this::assertNoFieldAccess);
     }
 
+    @Test
+    void testNoUsedFieldsWithRequiredField() throws Exception {
+        var original = loadOriginalBytecode("NoUsedFields");
+        var fields   = loadClass(original).getDeclaredFields().length;
+        var tests    = new AtomicInteger();
+
+        // only results that still contain the given field are interesting
+        var actual = reducer.apply(original, bytecode -> {
+            tests.incrementAndGet();
+            try {
+                return Arrays.stream(loadClass(bytecode).getDeclaredFields())
+                        .anyMatch(f -> f.getName().equals("anInt"));
+            } catch (Exception e) {
+                return false;
+            }
+        });
+
+        assertArrayEquals(
+                new String[]{"anInt"},
+                Arrays.stream(loadClass(actual).getDeclaredFields())
+                        .map(f -> f.getName())
+                        .toArray()
+        );
+
+        // batch removal requires far fewer tests than single removals
+        assertTrue(tests.get() < fields / 2, tests.get() + " tests for " + fields + " fields");
+    }
+
 }
@@ -0,0 +1,110 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.modules.remove.local.self.assignments.RemoveLocalSelfAssignments;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.objectweb.asm.Opcodes.*;
+
+public class ASMReducerTest {
+
+    /**
+     * The (deliberately too large) maximum stack size of the methods,
+     * which is only retained if the code of a method is copied.
+     */
+    private static final int MAX_STACK = 10;
+
+    /**
+     * Assembles a class with the given methods, where the methods
+     * that contain a self assignment store {@code 0} in the local
+     * variable {@code 1} and then assign it to itself.
+     */
+    private static byte[] assemble(boolean... selfAssignments) {
+        var cw = new ClassWriter(0);
+        cw.visit(V11, ACC_PUBLIC, "A", null, "java/lang/Object", null);
+
+        for (int i = 0; i < selfAssignments.length; i++) {
+            var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "m" + i, "()V", null, null);
+            mv.visitCode();
+            mv.visitInsn(ICONST_0);
+            mv.visitVarInsn(ISTORE, 1);
+
+            if (selfAssignments[i]) {
+                mv.visitVarInsn(ILOAD, 1);
+                mv.visitVarInsn(ISTORE, 1);
+            }
+
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(MAX_STACK, 2);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static MethodNode method(byte[] bytecode, String name) {
+        var node = new ClassNode();
+        new ClassReader(bytecode).accept(node, 0);
+
+        return node.methods.stream()
+                .filter(m -> m.name.equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static int[] opcodes(MethodNode method) {
+        return Arrays.stream(method.instructions.toArray())
+                .mapToInt(i -> i.getOpcode())
+                .filter(o -> o != -1)
+                .toArray();
+    }
+
+    @Test
+    void testUnchangedMethodsAreCopied() {
+        var original = assemble(false, true, false);
+        var reduced  = new RemoveLocalSelfAssignments().apply(original);
+
+        // the changed method is encoded again
+        var changed = method(reduced, "m1");
+        assertArrayEquals(new int[]{ICONST_0, ISTORE, RETURN}, opcodes(changed));
+        assertEquals(1, changed.maxStack);
+
+        // the other methods are copied verbatim
+        for (var name : new String[]{"m0", "m2"}) {
+            var unchanged = method(reduced, name);
+            assertArrayEquals(new int[]{ICONST_0, ISTORE, RETURN}, opcodes(unchanged));
+            assertEquals(MAX_STACK, unchanged.maxStack);
+        }
+    }
+
+    @Test
+    void testUnchangedClassIsReturned() {
+        var original = assemble(false, false);
+
+        assertSame(original, new RemoveLocalSelfAssignments().apply(original));
+    }
+
+    @Test
+    void testEveryMethodIsEncodedWithoutCopy() {
+        var reducer = new RemoveLocalSelfAssignments() {
+            @Override
+            public boolean copyUnchanged() {
+                return false;
+            }
+        };
+
+        var reduced = reducer.apply(assemble(false, true));
+
+        assertEquals(1, method(reduced, "m0").maxStack);
+        assertEquals(1, method(reduced, "m1").maxStack);
+    }
+}
@@ -0,0 +1,148 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.states.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IterativeReducerTest {
+
+    /**
+     * Reducer that removes one byte at a time
+     * (identified by its index in the current bytecode).
+     */
+    private static final IterativeReducer<Integer> REMOVE_BYTES = stable -> {
+        var bytecode = stable.bytecode();
+
+        for (int i = 0; i < bytecode.length; i++) {
+            if (stable.isNotCached(i)) {
+                var result = new byte[bytecode.length - 1];
+                System.arraycopy(bytecode, 0, result, 0, i);
+                System.arraycopy(bytecode, i + 1, result, i, bytecode.length - i - 1);
+
+                return stable.toResult(result, i);
+            }
+        }
+
+        return stable.toMinimalResult();
+    };
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testOnlyFirstInterestingCandidateIsAccepted() throws Exception {
+        final byte[] original = {0, 1, 2, 3};
+        final byte[] first    = {0, 2, 3};
+
+        // every candidate of the first step except the first one
+        // is interesting, where the first interesting one finishes last
+        Predicate<byte[]> test = bytecode -> {
+            if (Arrays.equals(bytecode, first)) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            return bytecode.length == 3 && bytecode[0] == 0;
+        };
+
+        List<byte[]> accepted = Collections.synchronizedList(new ArrayList<>());
+
+        var result = REMOVE_BYTES.apply(original, test, accepted::add, executor, 4);
+
+        assertArrayEquals(first, result);
+        assertEquals(1, accepted.size());
+        assertArrayEquals(first, accepted.get(0));
+    }
+
+    @Test
+    void testParallelResultMatchesSequentialResult() throws Exception {
+        final byte[] original = {0, 1, 2, 3, 4, 5, 6, 7};
+
+        Predicate<byte[]> test = bytecode -> {
+            for (byte b : bytecode)
+                if (b % 3 == 0)
+                    return true;
+
+            return false;
+        };
+
+        List<byte[]> sequential = new ArrayList<>();
+        List<byte[]> parallel   = Collections.synchronizedList(new ArrayList<>());
+
+        var expected = REMOVE_BYTES.iterate(State.of(original), test, sequential::add);
+        var actual   = REMOVE_BYTES.apply(original, test, parallel::add, executor, 3);
+
+        assertArrayEquals(expected, actual);
+        assertEquals(sequential.size(), parallel.size());
+
+        for (int i = 0; i < sequential.size(); i++)
+            assertArrayEquals(sequential.get(i), parallel.get(i));
+    }
+
+    @Test
+    void testCancelledTestsFinishBeforeResult() throws Exception {
+        final var running = new AtomicInteger();
+
+        // the first candidate wins immediately, while the others
+        // are still running (and ignore the interruption for a while)
+        Predicate<byte[]> test = bytecode -> {
+            if (bytecode[0] == 0)
+                return true;
+
+            running.incrementAndGet();
+            try {
+                var end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                while (System.nanoTime() < end)
+                    Thread.onSpinWait();
+
+                return false;
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+
+        // give the losing tests time to start
+        Predicate<byte[]> delayed = bytecode -> {
+            if (bytecode[0] == 0) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            return test.test(bytecode);
+        };
+
+        var candidates = List.of(new byte[]{0}, new byte[]{1}, new byte[]{2});
+
+        assertEquals(0, IterativeReducer.firstInteresting(candidates, delayed, executor));
+        assertEquals(0, running.get());
+    }
+}
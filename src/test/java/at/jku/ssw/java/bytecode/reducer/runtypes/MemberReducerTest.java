@@ -0,0 +1,147 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics;
+import at.jku.ssw.java.bytecode.reducer.metrics.Metrics.Counter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemberReducerTest {
+
+    /**
+     * Reducer whose members are the (distinct) byte values,
+     * where processing a member removes the value.
+     */
+    private static final MemberReducer<byte[], Byte, Byte> REMOVE_VALUES = new MemberReducer<>() {
+        @Override
+        public byte[] classFrom(byte[] bytecode) {
+            return bytecode;
+        }
+
+        @Override
+        public byte[] bytecodeFrom(byte[] clazz) {
+            return clazz;
+        }
+
+        @Override
+        public Stream<Byte> getMembers(byte[] clazz) {
+            return IntStream.range(0, clazz.length).mapToObj(i -> clazz[i]);
+        }
+
+        @Override
+        public byte[] process(byte[] clazz, Byte member) {
+            var result = new byte[clazz.length];
+            int size   = 0;
+
+            for (byte b : clazz)
+                if (b != member)
+                    result[size++] = b;
+
+            return Arrays.copyOf(result, size);
+        }
+
+        @Override
+        public Byte keyFromMember(Byte member) {
+            return member;
+        }
+    };
+
+    private static final byte[] ORIGINAL = {0, 1, 2, 3, 4, 5, 6, 7};
+
+    /**
+     * Interesting if either the first or the last value remains,
+     * which makes both halves of the first batch interesting.
+     */
+    private static final Predicate<byte[]> TEST = bytecode -> {
+        // the first interesting candidate finishes last
+        if (Arrays.equals(bytecode, new byte[]{4, 5, 6, 7})) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        for (byte b : bytecode)
+            if (b == 0 || b == 7)
+                return true;
+
+        return false;
+    };
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testParallelBatchesCommitOnlyTheFirstInterestingCandidate() throws Exception {
+        List<byte[]> sequential = new ArrayList<>();
+        List<byte[]> parallel   = Collections.synchronizedList(new ArrayList<>());
+
+        var expected = REMOVE_VALUES.apply(ORIGINAL, TEST, sequential::add, null, 4);
+        var actual   = REMOVE_VALUES.apply(ORIGINAL, TEST, parallel::add, executor, 4);
+
+        assertArrayEquals(new byte[]{4, 5, 6, 7}, parallel.get(0));
+        assertArrayEquals(expected, actual);
+        assertEquals(sequential.size(), parallel.size());
+
+        for (int i = 0; i < sequential.size(); i++)
+            assertArrayEquals(sequential.get(i), parallel.get(i));
+
+        // every accepted result is the base of the next one
+        assertArrayEquals(actual, parallel.get(parallel.size() - 1));
+    }
+
+    @Test
+    void testCountersResolveEveryCandidate() throws Exception {
+        var metrics = Metrics.global();
+        var before  = new EnumMap<Counter, Long>(Counter.class);
+
+        for (var c : Counter.values())
+            before.put(c, metrics.total(c));
+
+        List<byte[]> accepted = Collections.synchronizedList(new ArrayList<>());
+        REMOVE_VALUES.apply(ORIGINAL, TEST, accepted::add, executor, 4);
+
+        long generated = metrics.total(Counter.GENERATED) - before.get(Counter.GENERATED);
+        long accepts   = metrics.total(Counter.ACCEPTED) - before.get(Counter.ACCEPTED);
+        long rejects   = metrics.total(Counter.REJECTED) - before.get(Counter.REJECTED);
+        long discards  = metrics.total(Counter.DISCARDED) - before.get(Counter.DISCARDED);
+
+        assertEquals(accepted.size(), accepts);
+        assertEquals(generated, accepts + rejects + discards);
+
+        // both halves of the first batch are interesting
+        assertTrue(discards > 0);
+    }
+
+    @Test
+    void testPartition() {
+        var chunks = MemberReducer.partition(List.of(1, 2, 3, 4, 5), 2);
+
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4, 5)), chunks);
+    }
+}
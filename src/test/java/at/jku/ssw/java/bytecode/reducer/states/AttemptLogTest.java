@@ -0,0 +1,99 @@
+package at.jku.ssw.java.bytecode.reducer.states;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AttemptLogTest {
+
+    private static final byte[] ORIGINAL = {0, 1, 2};
+
+    @Test
+    void testExtendingLeavesPreviousVersionUnchanged() {
+        var first  = AttemptLog.of(List.of(1));
+        var second = first.with(List.of(2));
+
+        assertTrue(first.contains(1));
+        assertFalse(first.contains(2));
+
+        assertTrue(second.contains(1));
+        assertTrue(second.contains(2));
+    }
+
+    @Test
+    void testBranchesDoNotSeeEachOther() {
+        var base  = AttemptLog.of(List.of(1));
+        var left  = base.with(List.of(2));
+        var right = base.with(List.of(3));
+
+        assertTrue(right.contains(1));
+        assertTrue(right.contains(3));
+        assertFalse(right.contains(2));
+
+        assertTrue(left.contains(2));
+        assertFalse(left.contains(3));
+
+        // both branches can be extended independently
+        var leftNext  = left.with(List.of(4));
+        var rightNext = right.with(List.of(5));
+
+        assertTrue(leftNext.contains(4));
+        assertFalse(leftNext.contains(5));
+        assertTrue(rightNext.contains(5));
+        assertFalse(rightNext.contains(4));
+        assertFalse(base.contains(4));
+        assertFalse(base.contains(5));
+    }
+
+    @Test
+    void testEmptyLogIsNeverExtended() {
+        var first  = AttemptLog.<Integer>empty().with(List.of(1));
+        var second = AttemptLog.<Integer>empty().with(List.of(2));
+
+        assertFalse(AttemptLog.<Integer>empty().contains(1));
+        assertFalse(first.contains(2));
+        assertFalse(second.contains(1));
+    }
+
+    @Test
+    void testRejectKeepsAttemptsAndAcceptResetsThem() {
+        var stable    = State.<Integer>of(ORIGINAL, Set.of(0));
+        var candidate = stable.toResult(new byte[]{0, 2}, 1);
+
+        var rejected = candidate.reject();
+        var accepted = candidate.accept();
+
+        assertTrue(rejected.isCached(0));
+        assertTrue(rejected.isCached(1));
+        assertFalse(stable.isCached(1));
+
+        assertFalse(accepted.isCached(0));
+        assertFalse(accepted.isCached(1));
+    }
+
+    @Test
+    void testSiblingStatesAreIsolated() {
+        var stable = State.<Integer>of(ORIGINAL);
+
+        // speculative candidates that are all derived from the same base
+        var first  = stable.toResult(new byte[]{1, 2}, 0);
+        var second = stable.toResult(new byte[]{0, 2}, 1);
+
+        assertTrue(first.reject().isCached(0));
+        assertFalse(first.reject().isCached(1));
+        assertTrue(second.reject().isCached(1));
+        assertFalse(second.reject().isCached(0));
+
+        // a chain of rejections accumulates the attempts of its own branch
+        var chained = first.reject().toResult(new byte[]{0, 1}, 2).reject();
+
+        assertTrue(chained.isCached(0));
+        assertTrue(chained.isCached(2));
+        assertFalse(chained.isCached(1));
+        assertFalse(second.reject().isCached(2));
+    }
+}
@@ -0,0 +1,66 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import javassist.CtBehavior;
+import javassist.bytecode.analysis.Frame;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.IADD;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.V11;
+
+public class FrameCacheTest {
+
+    private static byte[] bytecode;
+
+    @BeforeAll
+    static void setUp() {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V11, ACC_PUBLIC, "Sample", null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "sum", "(II)I", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ILOAD, 0);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitInsn(IADD);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        bytecode = cw.toByteArray();
+    }
+
+    private static Frame[] analyze(byte[] bytecode) throws Exception {
+        CtBehavior method = Javassist.loadClass(bytecode).getDeclaredMethod("sum");
+
+        return FrameCache.of(method.getDeclaringClass(), bytecode).analyze(method);
+    }
+
+    @Test
+    void testFramesAreSharedWithinScope() throws Exception {
+        FrameCache.scoped(() -> {
+            // the same array (e.g. after a rejected candidate)
+            assertSame(analyze(bytecode), analyze(bytecode));
+
+            // an equal copy (e.g. after an accepted candidate)
+            assertSame(analyze(bytecode), analyze(bytecode.clone()));
+            return null;
+        });
+    }
+
+    @Test
+    void testFramesAreNotRetainedAfterScope() throws Exception {
+        var first  = FrameCache.scoped(() -> analyze(bytecode));
+        var second = FrameCache.scoped(() -> analyze(bytecode));
+
+        assertNotSame(first, second);
+        assertNotSame(analyze(bytecode), analyze(bytecode));
+    }
+}
@@ -0,0 +1,122 @@
+package at.jku.ssw.java.bytecode.reducer.visitors;
+
+import at.jku.ssw.java.bytecode.reducer.visitors.ReferenceCollector.Usage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+
+import java.util.Map;
+
+import static at.jku.ssw.java.bytecode.reducer.visitors.ReferenceCollector.memberKey;
+import static at.jku.ssw.java.bytecode.reducer.visitors.ReferenceCollector.nameKey;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.objectweb.asm.Opcodes.*;
+
+public class ReferenceCollectorTest {
+
+    private static Map<String, Usage> usages;
+
+    /**
+     * Generates a class {@code pkg/A} with a field {@code f} that is
+     * assigned in the constructor, read in {@code get()} and written in
+     * {@code set()}, a recursive method {@code rec()} and a method
+     * {@code call()} that calls {@code pkg/B.run()} directly and refers to
+     * {@code pkg/B.stat()} via a method handle.
+     */
+    @BeforeAll
+    static void setUp() {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V11, ACC_PUBLIC, "pkg/A", null, "java/lang/Object", null);
+        cw.visitField(ACC_PRIVATE, "f", "I", null, null).visitEnd();
+
+        var mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitInsn(ICONST_1);
+        mv.visitFieldInsn(PUTFIELD, "pkg/A", "f", "I");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "get", "()I", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, "pkg/A", "f", "I");
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "set", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitInsn(ICONST_2);
+        mv.visitFieldInsn(PUTFIELD, "pkg/A", "f", "I");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "rec", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "pkg/A", "rec", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "call", "(Lpkg/B;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "pkg/B", "run", "()V", false);
+        mv.visitLdcInsn(new Handle(H_INVOKESTATIC, "pkg/B", "stat", "()V", false));
+        mv.visitInsn(POP);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        usages = ReferenceCollector.collect(cw.toByteArray());
+    }
+
+    @Test
+    void testFieldAccesses() {
+        var field = usages.get(memberKey("pkg/A", "f", "I"));
+
+        assertEquals(1, field.reads);
+        assertEquals(1, field.writes);
+        assertEquals(1, field.initWrites);
+        assertEquals(0, field.calls);
+    }
+
+    @Test
+    void testRecursiveCalls() {
+        var method = usages.get(memberKey("pkg/A", "rec", "()V"));
+
+        assertEquals(0, method.calls);
+        assertEquals(1, method.selfCalls);
+    }
+
+    @Test
+    void testCallsAreRecordedByOwnerAndName() {
+        assertEquals(1, usages.get(memberKey("pkg/B", "run", "()V")).calls);
+        assertEquals(1, usages.get(nameKey("run", "()V")).calls);
+
+        // other owners are only covered by the name key
+        assertFalse(usages.containsKey(memberKey("pkg/C", "run", "()V")));
+    }
+
+    @Test
+    void testMethodHandles() {
+        assertEquals(1, usages.get(memberKey("pkg/B", "stat", "()V")).calls);
+    }
+
+    @Test
+    void testUnreferencedMembersAreNotRecorded() {
+        assertFalse(usages.containsKey(nameKey("get", "()I")));
+        assertFalse(usages.containsKey(nameKey("set", "()V")));
+    }
+}